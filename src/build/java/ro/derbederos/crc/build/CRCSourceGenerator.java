@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.build;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Build time generator of the {@code ro.derbederos.crc.generated} sources, in the spirit of Mark Adler's crcgen:
+ * for each chosen catalogue model a final slicing-by-8 class with the tables precomputed as static final arrays,
+ * and the {@code GeneratedCRCs} index used by {@code CRCFactory} to register them ahead of the generic engines.
+ * <p>
+ * It is self contained, so the build runs it with the source launcher before compiling the library:
+ * <pre>
+ * java CRCSourceGenerator.java &lt;catalogue&gt; &lt;output directory&gt; &lt;comma separated model names&gt;
+ * </pre>
+ */
+public class CRCSourceGenerator {
+
+    private static final String PACKAGE = "ro.derbederos.crc.generated";
+    private static final int DIMENSION = 8;
+
+    private static final class Model {
+        String name;
+        int width;
+        long poly;
+        long init;
+        boolean refIn;
+        boolean refOut;
+        long xorOut;
+        long check;
+        long residue;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CRCSourceGenerator <catalogue> <output directory> [<model>,...]");
+            System.exit(1);
+        }
+        Map<String, Model> catalogue = readCatalogue(Paths.get(args[0]));
+        Path directory = Paths.get(args[1], PACKAGE.split("\\."));
+        Files.createDirectories(directory);
+        Map<String, String> classNames = new LinkedHashMap<>();
+        String names = args.length > 2 ? args[2].trim() : "";
+        for (String name : names.isEmpty() ? new String[0] : names.split(",")) {
+            Model model = catalogue.get(name.trim());
+            if (model == null) {
+                throw new IllegalArgumentException("CRCSourceGenerator: Undefined model " + name);
+            }
+            if (model.refIn != model.refOut) {
+                throw new IllegalArgumentException("CRCSourceGenerator: refIn != refOut not supported for " + name);
+            }
+            String className = className(model.name);
+            write(directory.resolve(className + ".java"), generateModel(model, className));
+            classNames.put(model.name, className);
+        }
+        write(directory.resolve("GeneratedCRCs.java"), generateIndex(classNames));
+    }
+
+    private static Map<String, Model> readCatalogue(Path catalogue) throws IOException {
+        Map<String, Model> models = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(catalogue, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Properties p = new Properties();
+            p.load(new StringReader(line.replaceAll(" +", "\n")));
+            Model model = new Model();
+            model.width = Integer.parseInt(p.getProperty("width"), 10);
+            if (model.width > 64) {
+                continue;
+            }
+            model.poly = parseLong(p.getProperty("poly"));
+            model.init = parseLong(p.getProperty("init"));
+            model.refIn = Boolean.parseBoolean(p.getProperty("refin"));
+            model.refOut = Boolean.parseBoolean(p.getProperty("refout"));
+            model.xorOut = parseLong(p.getProperty("xorout"));
+            model.check = parseLong(p.getProperty("check"));
+            model.residue = parseLong(p.getProperty("residue"));
+            String name = p.getProperty("name");
+            model.name = name.startsWith("\"") && name.endsWith("\"") ? name.substring(1, name.length() - 1) : name;
+            models.put(model.name, model);
+        }
+        return models;
+    }
+
+    private static long parseLong(String input) {
+        input = input.toUpperCase(Locale.ROOT);
+        if (input.startsWith("0X")) {
+            return Long.parseUnsignedLong(input.substring(2), 16);
+        } else {
+            return Long.parseUnsignedLong(input);
+        }
+    }
+
+    private static String className(String modelName) {
+        String className = modelName.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+        return Character.isDigit(className.charAt(0)) ? "CRC_" + className : className;
+    }
+
+    private static void write(Path file, String source) {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(source);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * The tables of the 64 bit register used by {@code CRC64SlicingBy8}, the polynomial aligned to the register,
+     * narrowed to the register of the generated class when written out.
+     */
+    private static long[][] lookupTables(long poly, boolean refIn) {
+        long[][] lookupTables = new long[DIMENSION][0x100];
+        for (int i = 0; i < 0x100; i++) {
+            long v = refIn ? i : ((long) i) << 56;
+            for (int j = 0; j < 8; j++) {
+                if (refIn) {
+                    v = (v & 1) != 0 ? (v >>> 1) ^ poly : v >>> 1;
+                } else {
+                    v = v < 0 ? (v << 1) ^ poly : v << 1;
+                }
+            }
+            lookupTables[0][i] = v;
+        }
+        for (int i = 0; i < 0x100; i++) {
+            long v = lookupTables[0][i];
+            for (int k = 1; k < DIMENSION; k++) {
+                v = refIn ? lookupTables[0][(int) v & 0xFF] ^ (v >>> 8) : lookupTables[0][(int) (v >>> 56)] ^ (v << 8);
+                lookupTables[k][i] = v;
+            }
+        }
+        return lookupTables;
+    }
+
+    /**
+     * The width of the register of the generated class, the narrowest of the registers of the {@code CRC8},
+     * {@code CRC16}, {@code CRC32} and {@code CRC64} engines that holds the model, so the tables take 2, 4, 8 or 16 KiB.
+     */
+    private static int registerBits(int width) {
+        return width <= 8 ? 8 : width <= 16 ? 16 : width <= 32 ? 32 : 64;
+    }
+
+    private static String registerType(int registerBits) {
+        return registerBits == 64 ? "long" : "int";
+    }
+
+    private static String tableType(int registerBits) {
+        return registerBits == 8 ? "byte" : registerBits == 16 ? "char" : registerBits == 32 ? "int" : "long";
+    }
+
+    private static String hex(long value) {
+        return String.format("0x%016xL", value);
+    }
+
+    private static String hex(long value, int registerBits) {
+        return registerBits == 64 ? hex(value) : String.format("0x%0" + registerBits / 4 + "x", value);
+    }
+
+    private static String mask(int bits) {
+        return "0x" + Long.toHexString(-1L >>> 64 - bits).toUpperCase(Locale.ROOT);
+    }
+
+    private static String generateModel(Model model, String className) {
+        long poly = model.poly << 64 - model.width;
+        long init = model.init << 64 - model.width;
+        if (model.refIn) {
+            poly = Long.reverse(poly);
+            init = Long.reverse(init);
+        }
+        long[][] lookupTables = lookupTables(poly, model.refIn);
+        int registerBits = registerBits(model.width);
+        String register = registerType(registerBits);
+        // the reflected values are already in the low bits, the unreflected ones move to the top of the narrower register
+        int narrowing = model.refIn ? 0 : 64 - registerBits;
+        String modelParameters = String.format("width=%d poly=0x%x init=0x%x refin=%b refout=%b xorout=0x%x",
+                model.width, model.poly, model.init, model.refIn, model.refOut, model.xorOut);
+
+        StringBuilder s = new StringBuilder();
+        s.append("/*\n * Generated by ro.derbederos.crc.build.CRCSourceGenerator from the CRC catalogue, do not edit.\n */\n\n");
+        s.append("package ").append(PACKAGE).append(";\n\n");
+        s.append("import ro.derbederos.crc.CRC;\n");
+        s.append("import ro.derbederos.crc.CRCModel;\n");
+        s.append("import ro.derbederos.crc.purejava.CRC").append(registerBits).append(";\n\n");
+        s.append("import java.nio.Buffer;\n");
+        s.append("import java.nio.ByteBuffer;\n");
+        s.append("import java.nio.ByteOrder;\n\n");
+        s.append("/**\n");
+        s.append(" * Slicing-by-8 implementation of ").append(model.name).append(", ").append(modelParameters).append(",\n");
+        s.append(" * with the tables precomputed for a ").append(registerBits)
+                .append(" bit register. It can be used directly, without loading the catalogue.\n");
+        s.append(" */\n");
+        s.append("public final class ").append(className).append(" implements CRC {\n\n");
+        s.append(String.format("    public static final CRCModel MODEL = new CRCModel(\"%s\", %d, %s, %s, %b, %b, %s, %s, %s);%n%n",
+                model.name, model.width, hex(model.poly), hex(model.init), model.refIn, model.refOut,
+                hex(model.xorOut), hex(model.check), hex(model.residue)));
+        s.append("    private static final ").append(register).append(" POLY = ")
+                .append(hex(poly >>> narrowing, registerBits)).append(";\n");
+        s.append("    private static final ").append(register).append(" INIT = ")
+                .append(hex(init >>> narrowing, registerBits)).append(";\n");
+        int valuesPerLine = registerBits == 64 ? 4 : 8;
+        for (int k = 0; k < DIMENSION; k++) {
+            s.append("    private static final ").append(tableType(registerBits)).append("[] T").append(k).append(" = {");
+            for (int i = 0; i < 0x100; i++) {
+                long value = lookupTables[k][i] >>> narrowing;
+                s.append(i % valuesPerLine == 0 ? "\n            " : " ")
+                        .append(registerBits == 8 && value > 0x7F ? "(byte) " : "").append(hex(value, registerBits))
+                        .append(i < 0xFF ? "," : "");
+            }
+            s.append("\n    };\n");
+        }
+        s.append("\n    private ").append(register).append(" crc = INIT;\n");
+        s.append("    private CRC combiner; // generic implementation of the combine operations, created on first use\n\n");
+        s.append("    /**\n     * Creates an instance with the register set to the init value of the model.\n     */\n");
+        s.append("    public ").append(className).append("() {\n    }\n\n");
+
+        s.append("    @Override\n    public CRCModel getCRCModel() {\n        return MODEL;\n    }\n\n");
+        s.append("    @Override\n    public void reset() {\n        crc = INIT;\n    }\n\n");
+        s.append("    @Override\n    public void update(int b) {\n        crc = ")
+                .append(step(registerBits, model.refIn, "crc", "b")).append(";\n    }\n\n");
+
+        s.append("    @Override\n    public void update(byte[] src, int offset, int len) {\n");
+        s.append("        ").append(register).append(" localCrc = crc;\n        int index = offset;\n        while (len > 7) {\n");
+        String[] registerBytes = new String[DIMENSION];
+        if (registerBits == 64) {
+            s.append("            int high = (int) (localCrc >>> 32);\n            int low = (int) localCrc;\n");
+            registerBytes = model.refIn ?
+                    new String[]{"low", "(low >>> 8)", "(low >>> 16)", "(low >>> 24)", "high", "(high >>> 8)", "(high >>> 16)", "(high >>> 24)"} :
+                    new String[]{"(high >>> 24)", "(high >>> 16)", "(high >>> 8)", "high", "(low >>> 24)", "(low >>> 16)", "(low >>> 8)", "low"};
+        } else {
+            for (int i = 0; i < registerBits / 8; i++) {
+                int shift = model.refIn ? 8 * i : registerBits - 8 - 8 * i;
+                registerBytes[i] = shift == 0 ? "localCrc" : "(localCrc >>> " + shift + ")";
+            }
+        }
+        for (int i = 0; i < DIMENSION; i++) {
+            String b = "src[" + (i == 0 ? "index" : "index + " + i) + "]";
+            s.append(i == 0 ? "            localCrc = " + (registerBits == 8 ? "(" : "") : "                    ")
+                    .append("T").append(DIMENSION - 1 - i).append("[")
+                    .append(registerBytes[i] == null ? b : "(" + registerBytes[i] + " ^ " + b + ")").append(" & 0xFF]")
+                    .append(i < DIMENSION - 1 ? " ^\n" : registerBits == 8 ? ") & 0xFF;\n" : ";\n");
+        }
+        s.append("            index += 8;\n            len -= 8;\n        }\n");
+        s.append("        while (len > 0) {\n            localCrc = ")
+                .append(step(registerBits, model.refIn, "localCrc", "src[index++]"))
+                .append(";\n            len--;\n        }\n        crc = localCrc;\n    }\n\n");
+
+        s.append("    @Override\n    public void update(ByteBuffer buffer) {\n");
+        s.append("        if (buffer.hasArray()) {\n");
+        s.append("            update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());\n");
+        s.append("            ((Buffer) buffer).position(buffer.limit());\n            return;\n        }\n");
+        s.append("        ").append(register)
+                .append(" localCrc = crc;\n        int index = buffer.position();\n        int len = buffer.remaining();\n");
+        s.append("        boolean swap = buffer.order() != ByteOrder.").append(model.refIn ? "LITTLE_ENDIAN" : "BIG_ENDIAN")
+                .append(";\n");
+        s.append("        while (len > 7) {\n            long word = buffer.getLong(index);\n");
+        s.append("            if (swap) {\n                word = Long.reverseBytes(word);\n            }\n");
+        s.append("            word ^= ").append(wordRegister(registerBits, model.refIn, "localCrc")).append(";\n");
+        appendWordStep(s, registerBits, model.refIn, "            ", "localCrc");
+        s.append("            index += 8;\n            len -= 8;\n        }\n");
+        s.append("        while (len > 0) {\n            localCrc = ")
+                .append(step(registerBits, model.refIn, "localCrc", "buffer.get(index++)"))
+                .append(";\n            len--;\n        }\n");
+        s.append("        crc = localCrc;\n        ((Buffer) buffer).position(buffer.limit());\n    }\n\n");
+
+        appendUpdateValue(s, registerBits, model.refIn, "Short", "short", "Short", 2);
+        appendUpdateValue(s, registerBits, model.refIn, "Int", "int", "Integer", 4);
+        s.append("    @Override\n    public void updateLong(long v, ByteOrder order) {\n");
+        s.append("        long word = order == ByteOrder.").append(model.refIn ? "LITTLE_ENDIAN" : "BIG_ENDIAN")
+                .append(" ? v : Long.reverseBytes(v);\n");
+        s.append("        word ^= ").append(wordRegister(registerBits, model.refIn, "crc")).append(";\n");
+        appendWordStep(s, registerBits, model.refIn, "        ", "crc");
+        s.append("    }\n\n");
+
+        s.append("    @Override\n    public void updateBits(long b, int bits) {\n");
+        s.append("        ").append(register).append(" localCrc = crc;\n        for (; bits > 7; bits -= 8) {\n");
+        String one = registerBits == 64 ? "1L" : "1";
+        String bitsOfB = registerBits == 64 ? "b" : "(int) b";
+        if (model.refIn) {
+            s.append("            localCrc = ").append(step(registerBits, true, "localCrc", "(int) b")).append(";\n");
+            s.append("            b >>>= 8;\n        }\n");
+            s.append("        localCrc ^= ").append(bitsOfB).append(" & ((").append(one).append(" << bits) - 1);\n");
+            s.append("        for (int i = 0; i < bits; i++) {\n");
+            s.append("            localCrc = (localCrc >>> 1) ^ (POLY & -(localCrc & 1));\n        }\n");
+        } else {
+            s.append("            localCrc = ").append(step(registerBits, false, "localCrc", "(int) (b >>> bits - 8)"))
+                    .append(";\n");
+            s.append("        }\n");
+            s.append("        localCrc ^= (").append(bitsOfB).append(" & ((").append(one).append(" << bits) - 1)) << ")
+                    .append(registerBits).append(" - bits;\n");
+            s.append("        for (int i = 0; i < bits; i++) {\n");
+            String shifted = "(localCrc << 1) ^ (POLY & -(localCrc >>> " + (registerBits - 1) + "))";
+            s.append("            localCrc = ")
+                    .append(registerBits < 32 ? "(" + shifted + ") & " + mask(registerBits) : shifted)
+                    .append(";\n        }\n");
+        }
+        s.append("        crc = localCrc;\n    }\n\n");
+
+        int alignment = model.refIn ? 0 : registerBits - model.width;
+        String value = alignment == 0 ? "crc" : "(crc >>> " + alignment + ")";
+        if (registerBits == 32 && alignment == 0) {
+            value = "Integer.toUnsignedLong(crc)";
+        }
+        s.append("    @Override\n    public long getValue() {\n");
+        s.append("        return ").append(value).append(" ^ ").append(hex(model.xorOut)).append(";\n    }\n\n");
+        String register64 = "crc ^ " + hex(model.xorOut);
+        if (registerBits < 64) {
+            register64 = "(int) (" + register64 + ")" +
+                    (model.width < 32 ? " & " + mask(model.width) : "");
+        }
+        s.append("    @Override\n    public void setValue(long crc) {\n");
+        s.append("        this.crc = ").append(alignment == 0 ? register64 : "(" + register64 + ") << " + alignment)
+                .append(";\n    }\n\n");
+
+        s.append("    private CRC combiner() {\n        CRC combiner = this.combiner;\n");
+        s.append("        if (combiner == null) {\n            this.combiner = combiner = new CRC").append(registerBits)
+                .append("(MODEL);\n        }\n");
+        s.append("        return combiner;\n    }\n\n");
+        s.append("    @Override\n    public long getCrcOfCrc() {\n        return combiner().getCrcOfCrc();\n    }\n\n");
+        s.append("    @Override\n    public long concatenate(long crcA, long crcB, long bytesB) {\n");
+        s.append("        return combiner().concatenate(crcA, crcB, bytesB);\n    }\n\n");
+        s.append("    @Override\n    public long concatenateZeroes(long crcA, long bytesB) {\n");
+        s.append("        return combiner().concatenateZeroes(crcA, bytesB);\n    }\n");
+        s.append("}\n");
+        return s.toString();
+    }
+
+    /**
+     * The register as the 64 bit word it is xor-ed with, its bytes where the first bytes of the word in stream order are.
+     */
+    private static String wordRegister(int registerBits, boolean refIn, String register) {
+        if (registerBits == 64) {
+            return register;
+        }
+        if (refIn) {
+            return registerBits == 32 ? register + " & 0xFFFFFFFFL" : register;
+        }
+        return "(long) " + register + " << " + (64 - registerBits);
+    }
+
+    /**
+     * Appends the slicing-by-8 step of the register over the 8 bytes of {@code word}, already xor-ed with the register
+     * and in the byte order of the model, shared by updateLong and the direct buffer loop of update(ByteBuffer).
+     */
+    private static void appendWordStep(StringBuilder s, int registerBits, boolean refIn, String indent,
+                                       String register) {
+        for (int i = 0; i < DIMENSION; i++) {
+            int shift = refIn ? 8 * i : 56 - 8 * i;
+            String b = shift == 0 ? "(int) word & 0xFF" :
+                    shift == 56 ? "(int) (word >>> 56)" : "(int) (word >>> " + shift + ") & 0xFF";
+            s.append(indent).append(i == 0 ? register + " = " + (registerBits == 8 ? "(" : "") : "        ")
+                    .append("T").append(DIMENSION - 1 - i).append("[").append(b).append("]")
+                    .append(i < DIMENSION - 1 ? " ^\n" : registerBits == 8 ? ") & 0xFF;\n" : ";\n");
+        }
+    }
+
+    /**
+     * Appends the updateShort or updateInt method, byte-wise steps on the value, the first byte in stream order first.
+     */
+    private static void appendUpdateValue(StringBuilder s, int registerBits, boolean refIn, String name, String type,
+                                          String boxed, int bytes) {
+        s.append("    @Override\n    public void update").append(name).append("(").append(type)
+                .append(" v, ByteOrder order) {\n");
+        s.append("        long value = order == ByteOrder.BIG_ENDIAN ? ").append(boxed).append(".reverseBytes(v) : v;\n");
+        s.append("        ").append(registerType(registerBits)).append(" localCrc = crc;\n");
+        for (int i = 0; i < bytes; i++) {
+            String b = i == 0 ? "(int) value" : "(int) (value >>> " + 8 * i + ")";
+            s.append("        localCrc = ").append(step(registerBits, refIn, "localCrc", b)).append(";\n");
+        }
+        s.append("        crc = localCrc;\n    }\n\n");
+    }
+
+    /**
+     * The byte-wise step of Sarwate's algorithm, for the register crc and the data byte b, written like in the
+     * {@code CRC8}, {@code CRC16}, {@code CRC32} and {@code CRC64} engines.
+     */
+    private static String step(int registerBits, boolean refIn, String crc, String b) {
+        switch (registerBits) {
+            case 8:
+                return "T0[(" + crc + " ^ " + b + ") & 0xFF] & 0xFF";
+            case 16:
+                return refIn ? "(" + crc + " >>> 8) ^ T0[(" + crc + " ^ " + b + ") & 0xFF]" :
+                        "((" + crc + " << 8) ^ T0[((" + crc + " >>> 8) ^ " + b + ") & 0xFF]) & 0xFFFF";
+            case 32:
+                return refIn ? "(" + crc + " >>> 8) ^ T0[(" + crc + " ^ " + b + ") & 0xFF]" :
+                        "(" + crc + " << 8) ^ T0[((" + crc + " >>> 24) ^ " + b + ") & 0xFF]";
+            default:
+                return refIn ? "(" + crc + " >>> 8) ^ T0[((int) " + crc + " ^ " + b + ") & 0xFF]" :
+                        "(" + crc + " << 8) ^ T0[((int) (" + crc + " >>> 56) ^ " + b + ") & 0xFF]";
+        }
+    }
+
+    private static String generateIndex(Map<String, String> classNames) {
+        StringBuilder s = new StringBuilder();
+        s.append("/*\n * Generated by ro.derbederos.crc.build.CRCSourceGenerator from the CRC catalogue, do not edit.\n */\n\n");
+        s.append("package ").append(PACKAGE).append(";\n\n");
+        s.append("import java.util.LinkedHashMap;\nimport java.util.Map;\nimport java.util.function.Supplier;\n");
+        s.append("import java.util.zip.Checksum;\n\n");
+        s.append("/**\n * The classes generated at build time, by model name, registered by the CRCFactory ahead of the generic engines.\n */\n");
+        s.append("public final class GeneratedCRCs {\n\n");
+        s.append("    private GeneratedCRCs() {\n    }\n\n");
+        s.append("    public static Map<String, Supplier<Checksum>> getFactories() {\n");
+        s.append("        Map<String, Supplier<Checksum>> factories = new LinkedHashMap<>();\n");
+        for (Map.Entry<String, String> entry : classNames.entrySet()) {
+            s.append("        factories.put(\"").append(entry.getKey()).append("\", ").append(entry.getValue()).append("::new);\n");
+        }
+        s.append("        return factories;\n    }\n}\n");
+        return s.toString();
+    }
+}
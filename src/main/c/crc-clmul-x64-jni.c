@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/*
+ * JNI part of ro.derbederos.crc.clmul.CRC64CLMul for Linux x86-64.
+ *
+ * The input is folded 4 x 128 bits at a time with PCLMULQDQ and reduced to the 64 bit register with a
+ * Barrett reduction, as described by Vinodh Gopal et al. in "Fast CRC Computation for Generic Polynomials
+ * Using PCLMULQDQ Instruction", Intel, 2009.
+ * The polynomial is aligned to 64 bits (G = P * x ** (64 - width)), so one code path handles any width <= 64.
+ * The constants are computed in java, see CRC64CLMul, in the representation of the register:
+ *   k[0], k[1]  x ** (512 + 64), x ** 512 mod G   fold 64 bytes
+ *   k[2], k[3]  x ** (384 + 64), x ** 384 mod G   merge lane 0
+ *   k[4], k[5]  x ** (256 + 64), x ** 256 mod G   merge lane 1
+ *   k[6], k[7]  x ** (128 + 64), x ** 128 mod G   merge lane 2, fold 16 bytes
+ *   k[8]        floor(x ** 128 / G) - x ** 64      Barrett constant
+ *   k[9]        G - x ** 64
+ * For the reflected register the constants are bit reversed and the exponents are lowered by one,
+ * the product of two reflected operands being shifted by one bit.
+ *
+ * Build: gcc -O2 -shared -fPIC -I$JAVA_HOME/include -I$JAVA_HOME/include/linux crc-clmul-x64-jni.c -o libcrc-clmul.so
+ * The SIMD functions are compiled for their own target, so the library loads on any x86-64 cpu and
+ * isSupported() tells if they can be used.
+ */
+
+#include <jni.h>
+#include <cpuid.h>
+#include <stdint.h>
+#include <x86intrin.h>
+
+#define CONSTANTS_COUNT 10
+#define CLMUL_TARGET __attribute__((target("pclmul,sse4.1")))
+
+#define BIT_SSSE3     (1 << 9)
+#define BIT_SSE4_1    (1 << 19)
+#define BIT_PCLMULQDQ (1 << 1)
+
+CLMUL_TARGET
+static inline __m128i fold(__m128i x, __m128i k) {
+    return _mm_xor_si128(_mm_clmulepi64_si128(x, k, 0x00), _mm_clmulepi64_si128(x, k, 0x11));
+}
+
+CLMUL_TARGET
+static inline __m128i load_unreflected(const uint8_t *p, __m128i byte_swap) {
+    return _mm_shuffle_epi8(_mm_loadu_si128((const __m128i *) p), byte_swap);
+}
+
+/*
+ * Most significant bit first: the first byte of a block holds the highest powers, a block is loaded
+ * big endian, so the high 64 bits of the vector are the first 8 bytes.
+ * len >= 64 and a multiple of 16.
+ */
+CLMUL_TARGET
+static uint64_t update_unreflected(const int64_t *k, uint64_t crc, const uint8_t *p, size_t len) {
+    const __m128i byte_swap = _mm_set_epi8(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15);
+    const __m128i k512 = _mm_set_epi64x(k[0], k[1]);
+    const __m128i k384 = _mm_set_epi64x(k[2], k[3]);
+    const __m128i k256 = _mm_set_epi64x(k[4], k[5]);
+    const __m128i k128 = _mm_set_epi64x(k[6], k[7]);
+
+    __m128i x0 = _mm_xor_si128(load_unreflected(p, byte_swap), _mm_set_epi64x((int64_t) crc, 0));
+    __m128i x1 = load_unreflected(p + 16, byte_swap);
+    __m128i x2 = load_unreflected(p + 32, byte_swap);
+    __m128i x3 = load_unreflected(p + 48, byte_swap);
+    p += 64;
+    len -= 64;
+    while (len >= 64) {
+        x0 = _mm_xor_si128(fold(x0, k512), load_unreflected(p, byte_swap));
+        x1 = _mm_xor_si128(fold(x1, k512), load_unreflected(p + 16, byte_swap));
+        x2 = _mm_xor_si128(fold(x2, k512), load_unreflected(p + 32, byte_swap));
+        x3 = _mm_xor_si128(fold(x3, k512), load_unreflected(p + 48, byte_swap));
+        p += 64;
+        len -= 64;
+    }
+    __m128i x = _mm_xor_si128(_mm_xor_si128(fold(x0, k384), fold(x1, k256)), _mm_xor_si128(fold(x2, k128), x3));
+    while (len >= 16) {
+        x = _mm_xor_si128(fold(x, k128), load_unreflected(p, byte_swap));
+        p += 16;
+        len -= 16;
+    }
+
+    // x * x ** 64 = x_hi * (x ** 128 mod G) + x_lo * x ** 64, 128 bits
+    x = _mm_xor_si128(_mm_clmulepi64_si128(x, k128, 0x01), _mm_slli_si128(x, 8));
+    // Barrett reduction of x, the quotient q = floor(x_hi * floor(x ** 128 / G) / x ** 64)
+    const __m128i mu_g = _mm_set_epi64x(k[9], k[8]);
+    __m128i t = _mm_clmulepi64_si128(x, mu_g, 0x01);
+    uint64_t q = (uint64_t) _mm_extract_epi64(t, 1) ^ (uint64_t) _mm_extract_epi64(x, 1);
+    t = _mm_clmulepi64_si128(_mm_cvtsi64_si128((int64_t) q), mu_g, 0x10);
+    return (uint64_t) _mm_cvtsi128_si64(x) ^ (uint64_t) _mm_cvtsi128_si64(t);
+}
+
+/*
+ * Least significant bit first: a block is loaded little endian, bit i of the vector holding the power
+ * (127 - i), so the low 64 bits of the vector are the first 8 bytes.
+ * len >= 64 and a multiple of 16.
+ */
+CLMUL_TARGET
+static uint64_t update_reflected(const int64_t *k, uint64_t crc, const uint8_t *p, size_t len) {
+    const __m128i k512 = _mm_set_epi64x(k[1], k[0]);
+    const __m128i k384 = _mm_set_epi64x(k[3], k[2]);
+    const __m128i k256 = _mm_set_epi64x(k[5], k[4]);
+    const __m128i k128 = _mm_set_epi64x(k[7], k[6]);
+
+    __m128i x0 = _mm_xor_si128(_mm_loadu_si128((const __m128i *) p), _mm_cvtsi64_si128((int64_t) crc));
+    __m128i x1 = _mm_loadu_si128((const __m128i *) (p + 16));
+    __m128i x2 = _mm_loadu_si128((const __m128i *) (p + 32));
+    __m128i x3 = _mm_loadu_si128((const __m128i *) (p + 48));
+    p += 64;
+    len -= 64;
+    while (len >= 64) {
+        x0 = _mm_xor_si128(fold(x0, k512), _mm_loadu_si128((const __m128i *) p));
+        x1 = _mm_xor_si128(fold(x1, k512), _mm_loadu_si128((const __m128i *) (p + 16)));
+        x2 = _mm_xor_si128(fold(x2, k512), _mm_loadu_si128((const __m128i *) (p + 32)));
+        x3 = _mm_xor_si128(fold(x3, k512), _mm_loadu_si128((const __m128i *) (p + 48)));
+        p += 64;
+        len -= 64;
+    }
+    __m128i x = _mm_xor_si128(_mm_xor_si128(fold(x0, k384), fold(x1, k256)), _mm_xor_si128(fold(x2, k128), x3));
+    while (len >= 16) {
+        x = _mm_xor_si128(fold(x, k128), _mm_loadu_si128((const __m128i *) p));
+        p += 16;
+        len -= 16;
+    }
+
+    // x * x ** 64 = x_hi * (x ** 128 mod G) + x_lo * x ** 64, 128 bits
+    x = _mm_xor_si128(_mm_clmulepi64_si128(x, k128, 0x10), _mm_srli_si128(x, 8));
+    // Barrett reduction of x, the quotient q = floor(x_hi * floor(x ** 128 / G) / x ** 64)
+    const __m128i mu_g = _mm_set_epi64x(k[9], k[8]);
+    uint64_t x_hi = (uint64_t) _mm_cvtsi128_si64(x);
+    __m128i t = _mm_clmulepi64_si128(x, mu_g, 0x00);
+    uint64_t q = ((uint64_t) _mm_cvtsi128_si64(t) << 1) ^ x_hi;
+    t = _mm_clmulepi64_si128(_mm_cvtsi64_si128((int64_t) q), mu_g, 0x10);
+    uint64_t r = ((uint64_t) _mm_extract_epi64(t, 1) << 1) | ((uint64_t) _mm_cvtsi128_si64(t) >> 63);
+    return (uint64_t) _mm_extract_epi64(x, 1) ^ r;
+}
+
+JNIEXPORT jboolean JNICALL
+Java_ro_derbederos_crc_clmul_NativeCLMul_isSupported(JNIEnv *env, jclass cls) {
+    unsigned int eax, ebx, ecx, edx;
+    if (!__get_cpuid(1, &eax, &ebx, &ecx, &edx)) {
+        return JNI_FALSE;
+    }
+    const unsigned int required = BIT_SSSE3 | BIT_SSE4_1 | BIT_PCLMULQDQ;
+    return (ecx & required) == required ? JNI_TRUE : JNI_FALSE;
+}
+
+#define NATIVE_UPDATE_ARRAY(name, impl)                                                            \
+JNIEXPORT jlong JNICALL                                                                            \
+Java_ro_derbederos_crc_clmul_NativeCLMul_##name(JNIEnv *env, jclass cls, jlongArray constants,     \
+                                                 jlong crc, jbyteArray src, jint offset, jint len) { \
+    jlong k[CONSTANTS_COUNT];                                                                      \
+    (*env)->GetLongArrayRegion(env, constants, 0, CONSTANTS_COUNT, k);                             \
+    uint8_t *p = (*env)->GetPrimitiveArrayCritical(env, src, NULL);                                \
+    if (p == NULL) {                                                                               \
+        return crc;                                                                                \
+    }                                                                                              \
+    uint64_t result = impl((const int64_t *) k, (uint64_t) crc, p + offset, (size_t) len);         \
+    (*env)->ReleasePrimitiveArrayCritical(env, src, p, JNI_ABORT);                                 \
+    return (jlong) result;                                                                         \
+}
+
+#define NATIVE_UPDATE_BUFFER(name, impl)                                                           \
+JNIEXPORT jlong JNICALL                                                                            \
+Java_ro_derbederos_crc_clmul_NativeCLMul_##name(JNIEnv *env, jclass cls, jlongArray constants,     \
+                                                 jlong crc, jobject src, jint offset, jint len) {  \
+    jlong k[CONSTANTS_COUNT];                                                                      \
+    (*env)->GetLongArrayRegion(env, constants, 0, CONSTANTS_COUNT, k);                             \
+    uint8_t *p = (*env)->GetDirectBufferAddress(env, src);                                         \
+    if (p == NULL) {                                                                               \
+        return crc;                                                                                \
+    }                                                                                              \
+    return (jlong) impl((const int64_t *) k, (uint64_t) crc, p + offset, (size_t) len);            \
+}
+
+NATIVE_UPDATE_ARRAY(updateReflected, update_reflected)
+NATIVE_UPDATE_ARRAY(updateUnreflected, update_unreflected)
+NATIVE_UPDATE_BUFFER(updateReflectedDirect, update_reflected)
+NATIVE_UPDATE_BUFFER(updateUnreflectedDirect, update_unreflected)
@@ -1,5 +1,6 @@
 module ro.derbederos.crc {
     exports ro.derbederos.crc;
+    exports ro.derbederos.crc.generated;
 
     requires java.base;
 }
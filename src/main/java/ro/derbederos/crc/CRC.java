@@ -16,6 +16,11 @@
 
 package ro.derbederos.crc;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
 import java.util.zip.Checksum;
 
 public interface CRC extends Checksum {
@@ -24,15 +29,221 @@ public interface CRC extends Checksum {
         update(b, 0, b.length);
     }
 
+    /**
+     * Updates the checksum with the bytes from the position to the limit of {@code buffer}, the position is then set
+     * to the limit. It is declared here, and not only inherited from {@link Checksum}, so that the calls through
+     * {@code CRC} also link on Java 8, where {@code Checksum} has no {@code update(ByteBuffer)}.
+     */
+    default void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            for (int i = position; i < limit; i++) {
+                update(buffer.get(i));
+            }
+        }
+        ((Buffer) buffer).position(limit); // Buffer.position(int), ByteBuffer.position(int) is Java 9 or later
+    }
+
     CRCModel getCRCModel();
 
+    /**
+     * Updates the checksum with the lowest {@code bits} bits of {@code b}, 0 to 64. The bits are read from the least
+     * significant one when the model reflects the input ({@code refIn}) and from the most significant one otherwise.
+     */
     void updateBits(long b, int bits);
 
     default void updateBits(byte[] b, int off, int bits) {
-        int len = bits >>> 3;
-        update(b, off, len);
-        if ((bits & 0x7) != 0) {
-            updateBits(b[len], bits - (len << 3));
+        updateBits(b, (long) off << 3, bits);
+    }
+
+    /**
+     * Updates the checksum with {@code bitCount} bits of {@code src}, starting at bit {@code bitOffset}, for bit
+     * streams whose frames do not start on a byte boundary. Bit {@code i} of the stream is bit {@code i & 7} of
+     * {@code src[i >>> 3]}, counted from the least significant bit when the model reflects the input ({@code refIn})
+     * and from the most significant bit otherwise, the order in which {@link #update(byte[], int, int)} reads them.
+     * <p>
+     * Only the bits before the first and after the last whole byte are handled by {@link #updateBits(long, int)},
+     * the whole bytes between them are handed to {@link #update(byte[], int, int)}.
+     */
+    default void updateBits(byte[] src, long bitOffset, long bitCount) {
+        if (bitOffset < 0 || bitCount < 0 || bitOffset > ((long) src.length << 3) - bitCount) {
+            throw new ArrayIndexOutOfBoundsException("bitOffset " + bitOffset + ", bitCount " + bitCount +
+                    ", length " + src.length);
+        }
+        boolean refIn = getCRCModel().getRefIn();
+        int index = (int) (bitOffset >>> 3);
+        int skip = (int) bitOffset & 0x7;
+        if (skip != 0 && bitCount > 0) {
+            // leading bits, up to the first byte boundary
+            int bits = (int) Math.min(8 - skip, bitCount);
+            int value = src[index++] & 0xFF;
+            updateBits(refIn ? value >>> skip : value >>> 8 - skip - bits, bits);
+            bitCount -= bits;
+        }
+        int len = (int) (bitCount >>> 3);
+        update(src, index, len);
+        int bits = (int) bitCount & 0x7;
+        if (bits != 0) {
+            // trailing bits, the reflected ones are the lowest of the byte, the unreflected ones the highest
+            int value = src[index + len] & 0xFF;
+            updateBits(refIn ? value : value >>> 8 - bits, bits);
+        }
+    }
+
+    /**
+     * Updates the checksum with the 2 bytes of {@code v} in the given byte order, the same as {@code update(byte[])}
+     * with the bytes a {@code ByteBuffer} of that order would hold, without allocating.
+     */
+    default void updateShort(short v, ByteOrder order) {
+        int value = order == ByteOrder.BIG_ENDIAN ? Short.reverseBytes(v) : v;
+        update(value);
+        update(value >>> 8);
+    }
+
+    /**
+     * Updates the checksum with the 4 bytes of {@code v} in the given byte order.
+     *
+     * @see #updateShort(short, ByteOrder)
+     */
+    default void updateInt(int v, ByteOrder order) {
+        int value = order == ByteOrder.BIG_ENDIAN ? Integer.reverseBytes(v) : v;
+        update(value);
+        update(value >>> 8);
+        update(value >>> 16);
+        update(value >>> 24);
+    }
+
+    /**
+     * Updates the checksum with the 8 bytes of {@code v} in the given byte order.
+     *
+     * @see #updateShort(short, ByteOrder)
+     */
+    default void updateLong(long v, ByteOrder order) {
+        long value = order == ByteOrder.BIG_ENDIAN ? Long.reverseBytes(v) : v;
+        updateInt((int) value, ByteOrder.LITTLE_ENDIAN);
+        updateInt((int) (value >>> 32), ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Updates the checksum with the elements {@code offset} to {@code offset + len - 1} of {@code src} in the given
+     * byte order, the same as {@code update(byte[])} with the bytes a {@code ByteBuffer} of that order would hold,
+     * without allocating.
+     */
+    default void update(long[] src, int offset, int len, ByteOrder order) {
+        if (offset < 0 || len < 0 || offset > src.length - len) {
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", len " + len + ", length " + src.length);
+        }
+        for (int i = offset; i < offset + len; i++) {
+            updateLong(src[i], order);
+        }
+    }
+
+    /**
+     * Updates the checksum with the elements {@code offset} to {@code offset + len - 1} of {@code src} in the given
+     * byte order, two at a time through {@link #updateLong(long, ByteOrder)}.
+     *
+     * @see #update(long[], int, int, ByteOrder)
+     */
+    default void update(int[] src, int offset, int len, ByteOrder order) {
+        if (offset < 0 || len < 0 || offset > src.length - len) {
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", len " + len + ", length " + src.length);
+        }
+        boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+        int end = offset + len;
+        int i = offset;
+        for (; i < end - 1; i += 2) {
+            long first = src[i] & 0xFFFFFFFFL;
+            long second = src[i + 1] & 0xFFFFFFFFL;
+            updateLong(bigEndian ? first << 32 | second : second << 32 | first, order);
+        }
+        if (i < end) {
+            updateInt(src[i], order);
+        }
+    }
+
+    /**
+     * Updates the checksum with the elements {@code offset} to {@code offset + len - 1} of {@code src} in the given
+     * byte order, four at a time through {@link #updateLong(long, ByteOrder)}.
+     *
+     * @see #update(long[], int, int, ByteOrder)
+     */
+    default void update(short[] src, int offset, int len, ByteOrder order) {
+        if (offset < 0 || len < 0 || offset > src.length - len) {
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", len " + len + ", length " + src.length);
+        }
+        boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+        int end = offset + len;
+        int i = offset;
+        for (; i < end - 3; i += 4) {
+            long value = 0;
+            for (int k = 0; k < 4; k++) {
+                long element = src[i + k] & 0xFFFFL;
+                value |= bigEndian ? element << 48 - 16 * k : element << 16 * k;
+            }
+            updateLong(value, order);
+        }
+        for (; i < end; i++) {
+            updateShort(src[i], order);
+        }
+    }
+
+    /**
+     * Updates the checksum with the UTF-8 encoding of {@code s}, the same as {@code update(s.getBytes(UTF_8))}.
+     *
+     * @see #updateUTF8(CharSequence, int, int)
+     */
+    default void updateUTF8(CharSequence s) {
+        updateUTF8(s, 0, s.length());
+    }
+
+    /**
+     * Updates the checksum with the UTF-8 encoding of the characters {@code start} to {@code end - 1} of {@code s},
+     * the same as {@code update(s.subSequence(start, end).toString().getBytes(UTF_8))}, including the {@code '?'}
+     * written for the unpaired surrogates, but without allocating. The encoded bytes are gathered into a long
+     * and passed to {@link #updateLong(long, ByteOrder)} 8 at a time.
+     */
+    default void updateUTF8(CharSequence s, int start, int end) {
+        if (start < 0 || start > end || end > s.length()) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + s.length());
+        }
+        long word = 0; // the pending bytes, the first one in the lowest bits
+        int shift = 0; // bits of word already used
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            int encoded; // up to 4 bytes, the first one in the lowest bits
+            int bits;
+            if (c < 0x80) {
+                encoded = c;
+                bits = 8;
+            } else if (c < 0x800) {
+                encoded = (0xC0 | c >> 6) | (0x80 | c & 0x3F) << 8;
+                bits = 16;
+            } else if (!Character.isSurrogate(c)) {
+                encoded = (0xE0 | c >> 12) | (0x80 | c >> 6 & 0x3F) << 8 | (0x80 | c & 0x3F) << 16;
+                bits = 24;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                encoded = (0xF0 | codePoint >> 18) | (0x80 | codePoint >> 12 & 0x3F) << 8 |
+                        (0x80 | codePoint >> 6 & 0x3F) << 16 | (0x80 | codePoint & 0x3F) << 24;
+                bits = 32;
+            } else {
+                encoded = '?';
+                bits = 8;
+            }
+            word |= (encoded & 0xFFFFFFFFL) << shift;
+            shift += bits;
+            if (shift >= 64) {
+                updateLong(word, ByteOrder.LITTLE_ENDIAN);
+                shift -= 64;
+                word = shift == 0 ? 0 : (encoded & 0xFFFFFFFFL) >>> bits - shift;
+            }
+        }
+        for (; shift > 0; shift -= 8) {
+            update((int) word);
+            word >>>= 8;
         }
     }
 
@@ -46,8 +257,24 @@ public interface CRC extends Checksum {
         setValue(concatenate(getValue(), crcB, bytesB));
     }
 
+    /**
+     * Returns a reusable, thread safe operator equivalent to {@code (crcA, crcB) -> concatenate(crcA, crcB, bytesB)}.
+     * Implementations precompute what depends only on {@code bytesB}.
+     */
+    default LongBinaryOperator concatenateOperator(long bytesB) {
+        return (crcA, crcB) -> concatenate(crcA, crcB, bytesB);
+    }
+
     long concatenateZeroes(long crcA, long bytesB);
 
+    /**
+     * Returns a reusable, thread safe operator equivalent to {@code crcA -> concatenateZeroes(crcA, bytesB)}.
+     * Implementations precompute what depends only on {@code bytesB}.
+     */
+    default LongUnaryOperator concatenateZeroesOperator(long bytesB) {
+        return crcA -> concatenateZeroes(crcA, bytesB);
+    }
+
     default void appendZeroes(long bytesB) {
         setValue(concatenateZeroes(getValue(), bytesB));
     }
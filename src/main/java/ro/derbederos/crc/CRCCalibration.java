@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc;
+
+import ro.derbederos.crc.clmul.CRC64CLMul;
+import ro.derbederos.crc.purejava.CRC16Reflected;
+import ro.derbederos.crc.purejava.CRC16SlicingBy16Reflected;
+import ro.derbederos.crc.purejava.CRC16SlicingBy16Unreflected;
+import ro.derbederos.crc.purejava.CRC16SlicingBy8;
+import ro.derbederos.crc.purejava.CRC16Unreflected;
+import ro.derbederos.crc.purejava.CRC32Reflected;
+import ro.derbederos.crc.purejava.CRC32SlicingBy16;
+import ro.derbederos.crc.purejava.CRC32SlicingBy16FlatReflected;
+import ro.derbederos.crc.purejava.CRC32SlicingBy16FlatUnreflected;
+import ro.derbederos.crc.purejava.CRC32SlicingBy8;
+import ro.derbederos.crc.purejava.CRC32Unreflected;
+import ro.derbederos.crc.purejava.CRC64InterleavedWordByWord;
+import ro.derbederos.crc.purejava.CRC64Reflected;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16FlatReflected;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16FlatUnreflected;
+import ro.derbederos.crc.purejava.CRC64SlicingBy8;
+import ro.derbederos.crc.purejava.CRC64Unreflected;
+import ro.derbederos.crc.purejava.CRC8;
+import ro.derbederos.crc.purejava.CRC8SlicingBy16;
+import ro.derbederos.crc.purejava.CRC8SlicingBy8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+/**
+ * The fastest engine of each width class, 8, 16, 32 and 64 bits, for small and for large inputs,
+ * measured on the running JVM and CPU.
+ * <p>
+ * {@link #calibrate()} times every available engine on a reflected and an unreflected model of each width class,
+ * for {@link #SMALL_LENGTH} and {@link #LARGE_LENGTH} bytes, and takes a few seconds. Each engine is run enough times
+ * before it is measured for the JIT to compile its update methods with the optimizing compiler (C2).
+ * The result can be saved with {@link #save(Path)} and read by later JVM starts with {@link #load(Path)}.
+ * The saved file records the JVM and the CPU model it was measured on, a file measured elsewhere is not loaded.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @see CRCFactory#calibrate(Path)
+ */
+public final class CRCCalibration {
+
+    /**
+     * The system property naming the calibration file used by {@link CRCFactory}. When it is set, the first
+     * {@link CRCFactory#getCRC(CRCModel)} loads the file, or calibrates and saves it when it is missing or stale.
+     */
+    public static final String CALIBRATION_FILE_PROPERTY = "ro.derbederos.crc.calibration";
+
+    /**
+     * Length, in bytes, of the small inputs.
+     */
+    public static final int SMALL_LENGTH = 64;
+
+    /**
+     * Length, in bytes, of the large inputs.
+     */
+    public static final int LARGE_LENGTH = 16 << 10;
+
+    private static final int[] WIDTH_CLASSES = {8, 16, 32, 64};
+    private static final String[][] MODEL_NAMES = {
+            {"CRC-8", "CRC-8/MAXIM"}, {"XMODEM", "MODBUS"}, {"CRC-32/BZIP2", "CRC-32C"}, {"CRC-64/WE", "CRC-64/XZ"}};
+    // over the 15000 invocations (Tier4CompileThreshold) after which HotSpot compiles a method with C2
+    private static final int SMALL_WARMUP_OPERATIONS = 20_000;
+    // over the 600 invocations (Tier4MinInvocationThreshold) needed with the back edges of the update loops
+    private static final int LARGE_WARMUP_OPERATIONS = 1_000;
+    private static final long WARMUP_NANOS = 10_000_000L;
+    private static final long MEASUREMENT_NANOS = 5_000_000L;
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static volatile long blackhole; // keeps the computed values alive
+
+    private final Map<String, String> engineNames;
+
+    private CRCCalibration(Map<String, String> engineNames) {
+        this.engineNames = engineNames;
+    }
+
+    /**
+     * Measures the engines available on the running JVM and CPU.
+     *
+     * @return the fastest engines of each width class.
+     */
+    public static CRCCalibration calibrate() {
+        return calibrate(SMALL_WARMUP_OPERATIONS, LARGE_WARMUP_OPERATIONS, WARMUP_NANOS, MEASUREMENT_NANOS);
+    }
+
+    static CRCCalibration calibrate(int smallWarmupOperations, int largeWarmupOperations, long warmupNanos,
+                                    long measurementNanos) {
+        byte[] input = new byte[LARGE_LENGTH];
+        new Random(0x12fed1a214ecbd00L).nextBytes(input);
+        Map<String, String> engineNames = new LinkedHashMap<>();
+        for (int i = 0; i < WIDTH_CLASSES.length; i++) {
+            String bestSmall = null;
+            String bestLarge = null;
+            double bestSmallScore = 0;
+            double bestLargeScore = 0;
+            for (String candidate : candidates(WIDTH_CLASSES[i])) {
+                double smallScore = 0;
+                double largeScore = 0;
+                for (String modelName : MODEL_NAMES[i]) {
+                    CRCModel model = CRCFactory.getModel(modelName);
+                    if (model == null) {
+                        continue;
+                    }
+                    Checksum checksum = newEngine(candidate, model);
+                    measure(checksum, input, SMALL_LENGTH, smallWarmupOperations, warmupNanos / 2);
+                    measure(checksum, input, LARGE_LENGTH, largeWarmupOperations, warmupNanos / 2);
+                    smallScore += measure(checksum, input, SMALL_LENGTH, 0, measurementNanos);
+                    largeScore += measure(checksum, input, LARGE_LENGTH, 0, measurementNanos);
+                }
+                if (smallScore > bestSmallScore) {
+                    bestSmallScore = smallScore;
+                    bestSmall = candidate;
+                }
+                if (largeScore > bestLargeScore) {
+                    bestLargeScore = largeScore;
+                    bestLarge = candidate;
+                }
+            }
+            if (bestSmall != null && bestLarge != null) {
+                engineNames.put(key(WIDTH_CLASSES[i], true), bestSmall);
+                engineNames.put(key(WIDTH_CLASSES[i], false), bestLarge);
+            }
+        }
+        return new CRCCalibration(engineNames);
+    }
+
+    /**
+     * Returns the throughput, in bytes per nanosecond, of the full {@code reset(); update(); getValue()} cycle,
+     * run for at least (operations) times and (nanos) nanoseconds.
+     */
+    private static double measure(Checksum checksum, byte[] input, int length, int operations, long nanos) {
+        long sink = 0;
+        long done = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 16; i++) {
+                checksum.reset();
+                checksum.update(input, 0, length);
+                sink += checksum.getValue();
+            }
+            done += 16;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < nanos || done < operations);
+        blackhole = sink;
+        return (double) done * length / elapsed;
+    }
+
+    /**
+     * Reads a calibration saved by {@link #save(Path)}.
+     *
+     * @param file the calibration file
+     * @return the calibration, or null when the file is missing or was measured on another JVM or CPU.
+     * @throws IOException if the file cannot be read
+     */
+    public static CRCCalibration load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        if (!fingerprint().equals(properties.getProperty(FINGERPRINT))) {
+            return null;
+        }
+        Map<String, String> engineNames = new LinkedHashMap<>();
+        for (int widthClass : WIDTH_CLASSES) {
+            for (boolean smallInputs : new boolean[]{true, false}) {
+                String key = key(widthClass, smallInputs);
+                String engineName = properties.getProperty(key);
+                if (engineName == null || !candidates(widthClass).contains(engineName)) {
+                    return null;
+                }
+                engineNames.put(key, engineName);
+            }
+        }
+        return new CRCCalibration(engineNames);
+    }
+
+    /**
+     * Saves the calibration, to be read by later JVM starts with {@link #load(Path)}.
+     *
+     * @param file the calibration file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(FINGERPRINT, fingerprint());
+        properties.putAll(engineNames);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, "CRC engine calibration, see " + CRCCalibration.class.getName());
+        }
+    }
+
+    /**
+     * Returns the name of the fastest engine, relative to the {@code ro.derbederos.crc} package,
+     * e.g. {@code purejava.CRC32SlicingBy8}.
+     *
+     * @param width       the width of the model
+     * @param smallInputs true for the inputs of about {@link #SMALL_LENGTH} bytes
+     * @return the name of the engine, or null when the width is over 64.
+     */
+    public String getEngineName(int width, boolean smallInputs) {
+        int widthClass = widthClass(width);
+        return widthClass < 0 ? null : engineNames.get(key(widthClass, smallInputs));
+    }
+
+    /**
+     * Returns a new instance of the fastest engine for the model, or null when the width is over 64.
+     */
+    CRC newChecksum(CRCModel model, boolean smallInputs) {
+        Supplier<CRC> factory = checksumFactory(model, smallInputs);
+        return factory == null ? null : factory.get();
+    }
+
+    /**
+     * Returns the factory of the engines {@link #newChecksum(CRCModel, boolean)} creates for the model,
+     * or null when the width of the model was not calibrated.
+     */
+    Supplier<CRC> checksumFactory(CRCModel model, boolean smallInputs) {
+        String engineName = getEngineName(model.getWidth(), smallInputs);
+        if (engineName == null) {
+            return null;
+        }
+        return () -> newEngine(engineName, model);
+    }
+
+    @Override
+    public String toString() {
+        return "CRCCalibration" + engineNames;
+    }
+
+    private static int widthClass(int width) {
+        for (int widthClass : WIDTH_CLASSES) {
+            if (width <= widthClass) {
+                return widthClass;
+            }
+        }
+        return -1;
+    }
+
+    private static String key(int widthClass, boolean smallInputs) {
+        return "width." + widthClass + (smallInputs ? ".small" : ".large");
+    }
+
+    private static String fingerprint() {
+        return System.getProperty("os.arch") + " " + System.getProperty("java.vm.name") + " " +
+                System.getProperty("java.vm.version") + " " + cpuModel() + " " +
+                Runtime.getRuntime().availableProcessors() + " cpus" + (CRC64CLMul.isSupported() ? " clmul" : "");
+    }
+
+    /**
+     * Returns the model of the CPU, the first "model name" of /proc/cpuinfo on Linux
+     * or the PROCESSOR_IDENTIFIER environment variable on Windows, "unknown cpu" when neither is available.
+     */
+    private static String cpuModel() {
+        Path cpuInfo = Paths.get("/proc/cpuinfo");
+        if (Files.isReadable(cpuInfo)) {
+            try (BufferedReader reader = Files.newBufferedReader(cpuInfo, StandardCharsets.ISO_8859_1)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int colon = line.indexOf(':');
+                    if (line.startsWith("model name") && colon > 0) {
+                        return line.substring(colon + 1).trim();
+                    }
+                }
+            } catch (IOException ignore) {
+            }
+        }
+        String identifier = System.getenv("PROCESSOR_IDENTIFIER");
+        return identifier != null ? identifier.trim() : "unknown cpu";
+    }
+
+    private static List<String> candidates(int widthClass) {
+        boolean varHandleAvailable = isClassAvailable("java.lang.invoke.VarHandle");
+        List<String> candidates = new ArrayList<>();
+        switch (widthClass) {
+            case 8:
+                Collections.addAll(candidates, "purejava.CRC8", "purejava.CRC8SlicingBy8", "purejava.CRC8SlicingBy16");
+                break;
+            case 16:
+                Collections.addAll(candidates,
+                        "purejava.CRC16", "purejava.CRC16SlicingBy8", "purejava.CRC16SlicingBy16");
+                break;
+            case 32:
+                Collections.addAll(candidates, "purejava.CRC32", "purejava.CRC32SlicingBy16");
+                break;
+            default:
+                Collections.addAll(candidates,
+                        "purejava.CRC64", "purejava.CRC64SlicingBy8", "purejava.CRC64SlicingBy16");
+                if (varHandleAvailable) {
+                    // both read the input through the VarHandles of ByteArrayAccess
+                    Collections.addAll(candidates,
+                            "purejava.CRC64InterleavedWordByWord", "purejava.CRC64SlicingBy16Flat");
+                }
+                break;
+        }
+        if (widthClass <= 32) {
+            candidates.add("purejava.CRC32SlicingBy8");
+            if (varHandleAvailable) {
+                candidates.add("purejava.CRC32SlicingBy16Flat");
+            }
+        }
+        if (CRC64CLMul.isSupported()) {
+            candidates.add("clmul.CRC64CLMul");
+        }
+        return candidates;
+    }
+
+    private static CRC newEngine(String engineName, CRCModel model) {
+        switch (engineName) {
+            case "purejava.CRC8":
+                return new CRC8(model);
+            case "purejava.CRC8SlicingBy8":
+                return new CRC8SlicingBy8(model);
+            case "purejava.CRC8SlicingBy16":
+                return new CRC8SlicingBy16(model);
+            case "purejava.CRC16":
+                return model.getRefIn() ? new CRC16Reflected(model) : new CRC16Unreflected(model);
+            case "purejava.CRC16SlicingBy8":
+                return new CRC16SlicingBy8(model);
+            case "purejava.CRC16SlicingBy16":
+                return model.getRefIn() ? new CRC16SlicingBy16Reflected(model) : new CRC16SlicingBy16Unreflected(model);
+            case "purejava.CRC32":
+                return model.getRefIn() ? new CRC32Reflected(model) : new CRC32Unreflected(model);
+            case "purejava.CRC32SlicingBy8":
+                return new CRC32SlicingBy8(model);
+            case "purejava.CRC32SlicingBy16":
+                return new CRC32SlicingBy16(model);
+            case "purejava.CRC32SlicingBy16Flat":
+                return model.getRefIn() ? new CRC32SlicingBy16FlatReflected(model) :
+                        new CRC32SlicingBy16FlatUnreflected(model);
+            case "purejava.CRC64":
+                return model.getRefIn() ? new CRC64Reflected(model) : new CRC64Unreflected(model);
+            case "purejava.CRC64SlicingBy8":
+                return new CRC64SlicingBy8(model);
+            case "purejava.CRC64SlicingBy16":
+                return new CRC64SlicingBy16(model);
+            case "purejava.CRC64SlicingBy16Flat":
+                return model.getRefIn() ? new CRC64SlicingBy16FlatReflected(model) :
+                        new CRC64SlicingBy16FlatUnreflected(model);
+            case "purejava.CRC64InterleavedWordByWord":
+                return new CRC64InterleavedWordByWord(model);
+            case "clmul.CRC64CLMul":
+                return new CRC64CLMul(model);
+            default:
+                throw new IllegalArgumentException("CRCCalibration: Unknown engine " + engineName);
+        }
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException ignore) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc;
+
+import java.io.DataOutput;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * {@link DataOutput} that writes nothing but updates a {@link CRC} with the bytes it would write, e.g. to compute
+ * the CRC of a record without serializing its fields into a buffer first. The primitives are forwarded to
+ * {@link CRC#updateShort(short, ByteOrder)}, {@link CRC#updateInt(int, ByteOrder)} and
+ * {@link CRC#updateLong(long, ByteOrder)}, so no write allocates.
+ * <p>
+ * The multi-byte values are written in the byte order given at construction, big endian by default like
+ * {@link java.io.DataOutputStream}. {@link #writeUTF(String)} always uses the format of {@link DataOutput},
+ * with a big endian length. Being an {@link OutputStream}, it can also be the target of other streams.
+ * <p>
+ * Instances are not thread safe, like the {@link CRC} they update.
+ */
+public final class CRCDataOutput extends OutputStream implements DataOutput {
+
+    private final CRC crc;
+    private final ByteOrder order;
+
+    public CRCDataOutput(CRC crc) {
+        this(crc, ByteOrder.BIG_ENDIAN);
+    }
+
+    public CRCDataOutput(CRC crc, ByteOrder order) {
+        this.crc = Objects.requireNonNull(crc, "crc");
+        this.order = Objects.requireNonNull(order, "order");
+    }
+
+    public CRC getCRC() {
+        return crc;
+    }
+
+    public ByteOrder getByteOrder() {
+        return order;
+    }
+
+    @Override
+    public void write(int b) {
+        crc.update(b);
+    }
+
+    @Override
+    public void write(byte[] b) {
+        crc.update(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        crc.update(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        crc.update(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        crc.update(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        crc.updateShort((short) v, order);
+    }
+
+    @Override
+    public void writeChar(int v) {
+        crc.updateShort((short) v, order);
+    }
+
+    @Override
+    public void writeInt(int v) {
+        crc.updateInt(v, order);
+    }
+
+    @Override
+    public void writeLong(long v) {
+        crc.updateLong(v, order);
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        crc.updateInt(Float.floatToIntBits(v), order);
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        crc.updateLong(Double.doubleToLongBits(v), order);
+    }
+
+    @Override
+    public void writeBytes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            crc.update(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            crc.updateShort((short) s.charAt(i), order);
+        }
+    }
+
+    @Override
+    public void writeUTF(String s) throws UTFDataFormatException {
+        int utfLength = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            utfLength += c >= 0x0001 && c <= 0x007F ? 1 : c > 0x07FF ? 3 : 2;
+        }
+        if (utfLength > 0xFFFF) {
+            throw new UTFDataFormatException("encoded string too long: " + utfLength + " bytes");
+        }
+        crc.updateShort((short) utfLength, ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                crc.update(c);
+            } else if (c > 0x07FF) {
+                crc.update(0xE0 | (c >> 12));
+                crc.update(0x80 | ((c >> 6) & 0x3F));
+                crc.update(0x80 | (c & 0x3F));
+            } else {
+                crc.update(0xC0 | (c >> 6));
+                crc.update(0x80 | (c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stateless CRC calculator. The running state is kept by the caller in a primitive long, so one instance
+ * per model, see {@link CRCFactory#getEngine(CRCModel)}, can be shared between threads and used without allocations.
+ * <pre>
+ * long state = engine.init();
+ * state = engine.update(state, bytes, 0, bytes.length);
+ * long crc = engine.finish(state);
+ * </pre>
+ * The state is in the internal representation of the engine, only {@link #finish(long)} gives the CRC value.
+ */
+public interface CRCEngine {
+
+    CRCModel getCRCModel();
+
+    /**
+     * Returns the state before any data.
+     */
+    long init();
+
+    long update(long state, int b);
+
+    long update(long state, byte[] b, int off, int len);
+
+    /**
+     * Updates the state with the remaining bytes of the buffer, the position of the buffer is moved to its limit.
+     */
+    long update(long state, ByteBuffer buffer);
+
+    /**
+     * Returns the CRC value of the state.
+     */
+    long finish(long state);
+
+    /**
+     * Returns the state having the given CRC value, the inverse of {@link #finish(long)}.
+     */
+    long resume(long crc);
+
+    default long compute(byte[] b, int off, int len) {
+        return finish(update(init(), b, off, len));
+    }
+}
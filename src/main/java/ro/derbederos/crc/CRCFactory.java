@@ -16,40 +16,153 @@
 
 package ro.derbederos.crc;
 
+import ro.derbederos.crc.clmul.CRC64CLMul;
+import ro.derbederos.crc.clmul.CRC64CLMulEngine;
+import ro.derbederos.crc.generated.GeneratedCRCs;
+import ro.derbederos.crc.purejava.CRC16SlicingBy16Reflected;
+import ro.derbederos.crc.purejava.CRC16SlicingBy16Unreflected;
+import ro.derbederos.crc.purejava.CRC32Intrinsic;
+import ro.derbederos.crc.purejava.CRC32Nibble;
+import ro.derbederos.crc.purejava.CRC32SlicingBy16FlatReflected;
+import ro.derbederos.crc.purejava.CRC32SlicingBy16FlatUnreflected;
 import ro.derbederos.crc.purejava.CRC32SlicingBy8;
+import ro.derbederos.crc.purejava.CRC64Engine;
+import ro.derbederos.crc.purejava.CRC64EngineSpecializer;
+import ro.derbederos.crc.purejava.CRC64Nibble;
 import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16FlatReflected;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16FlatUnreflected;
+import ro.derbederos.crc.purejava.CRC8SlicingBy8;
 import ro.derbederos.crc.purejava.crc32.CRC32_JAMCRC;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
-import java.io.StringReader;
 import java.lang.invoke.*;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 import java.util.zip.Checksum;
 
 public class CRCFactory {
 
+    /**
+     * How {@link #getCRC(CRCModel, SelectionPolicy)} trades the memory of the calculator for its throughput.
+     */
+    public enum SelectionPolicy {
+        /**
+         * The fastest calculator, whatever the size of its lookup tables.
+         */
+        FASTEST,
+        /**
+         * A calculator having at most 128 bytes of lookup tables per polynomial,
+         * for the applications keeping many models alive.
+         */
+        MEMORY_CONSTRAINED
+    }
+
     public static final CRCModel CRC32;
     public static final CRCModel JAMCRC;
     public static final CRCModel CRC32C;
 
-    private static Map<String, CRCModel> models = new LinkedHashMap<>();
+    private static final CRCModel UNPARSABLE = new CRCModel("", 0, 0, 0, false, false, 0, 0, 0);
+
+    // the catalogue lines are parsed into models on first use, the index maps upper case names and aliases to lines
+    private static String[] modelLines = new String[0];
+    private static int[] modelLineNumbers = new int[0];
+    private static AtomicReferenceArray<CRCModel> parsedModels = new AtomicReferenceArray<>(0);
+    private static Map<String, Integer> modelIndex = new HashMap<>();
     private static Map<CRCModel, Supplier<Checksum>> constructors = new HashMap<>();
+    private static final Map<CRCModel, CRCEngine> engines = new ConcurrentHashMap<>();
+    private static final Map<CRCModel, CRCEngine> specializedEngines = new ConcurrentHashMap<>();
+    private static final boolean varHandleAvailable = isClassAvailable("java.lang.invoke.VarHandle");
+    private static volatile CRCCalibration calibration;
 
     static {
         loadModels();
+        loadAliases();
         CRC32 = getModel("CRC-32");
-        registerFactory(CRC32, java.util.zip.CRC32::new);
+        registerFactory(CRC32, lazyConstructor("java.util.zip.CRC32"));
         JAMCRC = getModel("JAMCRC");
-        registerFactory(JAMCRC, CRC32_JAMCRC::new);
+        registerFactory(JAMCRC, lazyConstructor(CRC32_JAMCRC.class.getName()));
         CRC32C = getModel("CRC-32C");
-        registerFactory(CRC32C, dynamicConstructor("java.util.zip.CRC32C"));
+        registerFactory(CRC32C, lazyConstructor("java.util.zip.CRC32C"));
+    }
+
+    /**
+     * Loads the native library on first use only.
+     */
+    private static final class NativeHolder {
+        static final boolean clmulAvailable = CRC64CLMul.isSupported();
+    }
+
+    /**
+     * Loads or runs the calibration named by {@link CRCCalibration#CALIBRATION_FILE_PROPERTY} on first use only.
+     */
+    private static final class CalibrationHolder {
+        static final CRCCalibration startupCalibration = startupCalibration();
+
+        private static CRCCalibration startupCalibration() {
+            String file = System.getProperty(CRCCalibration.CALIBRATION_FILE_PROPERTY);
+            if (file == null || file.isEmpty()) {
+                return null;
+            }
+            try {
+                return calibrate(Paths.get(file));
+            } catch (IOException ex) {
+                System.err.println("CRCFactory: calibration file " + file + " not used");
+                ex.printStackTrace();
+                return calibrate();
+            }
+        }
+    }
+
+    /**
+     * Resolves the constructors of the classes generated at build time on first use only.
+     */
+    private static final class GeneratedHolder {
+        static final Map<CRCModel, Supplier<Checksum>> generatedConstructors = new HashMap<>();
+
+        static {
+            for (Map.Entry<String, Supplier<Checksum>> entry : GeneratedCRCs.getFactories().entrySet()) {
+                CRCModel model = getModel(entry.getKey());
+                if (model != null) {
+                    generatedConstructors.put(model, entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Supplier of a class having a public no-arg constructor, bound through {@link LambdaMetafactory} on first use.
+     */
+    private static final class LazyConstructor implements Supplier<Checksum> {
+        private final String className;
+        private volatile Supplier<Checksum> constructor;
+
+        LazyConstructor(String className) {
+            this.className = className;
+        }
+
+        @Override
+        public Checksum get() {
+            Supplier<Checksum> constructor = this.constructor;
+            if (constructor == null) {
+                constructor = dynamicConstructor(className);
+                this.constructor = constructor;
+            }
+            return constructor.get();
+        }
     }
 
     private static void registerFactory(CRCModel model, Supplier<Checksum> constructor) {
@@ -58,6 +171,10 @@ public class CRCFactory {
         }
     }
 
+    private static Supplier<Checksum> lazyConstructor(String className) {
+        return isClassAvailable(className) ? new LazyConstructor(className) : null;
+    }
+
     @SuppressWarnings("unchecked")
     private static Supplier<Checksum> dynamicConstructor(String className) {
         try {
@@ -80,54 +197,188 @@ public class CRCFactory {
         return null;
     }
 
+    /**
+     * Returns the factory of the JDK intrinsic computing the polynomial of a reflected 32 bits model,
+     * or null when there is none. The models differing from CRC-32 or CRC-32C only by init and xorOut
+     * are computed by it through {@link CRC32Intrinsic}.
+     */
+    private static Supplier<Checksum> intrinsicFactory(CRCModel model) {
+        if (model.getWidth() != 32 || !model.getRefIn() || !model.getRefOut()) {
+            return null;
+        }
+        if (CRC32 != null && model.getPoly() == CRC32.getPoly()) {
+            return constructors.get(CRC32);
+        }
+        if (CRC32C != null && model.getPoly() == CRC32C.getPoly()) {
+            return constructors.get(CRC32C);
+        }
+        return null;
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException ignore) {
+            return false;
+        }
+    }
+
+    /**
+     * Indexes the lines of the catalogue by model name, in a single pass and without parsing the parameters.
+     */
     private static void loadModels() {
         URL crcModelsUrl = CRCFactory.class.getClassLoader().getResource("crc-catalogue-models.txt");
         if (crcModelsUrl == null) {
             return;
         }
-        try (LineNumberReader reader = new LineNumberReader(new InputStreamReader(crcModelsUrl.openStream()))) {
+        try (LineNumberReader reader = new LineNumberReader(
+                new InputStreamReader(crcModelsUrl.openStream(), StandardCharsets.UTF_8))) {
             String line;
-            Map<String, CRCModel> models = new LinkedHashMap<>();
+            List<String> lines = new ArrayList<>();
+            List<Integer> lineNumbers = new ArrayList<>();
+            Map<String, Integer> modelIndex = new HashMap<>();
             while ((line = reader.readLine()) != null) {
                 line = line.trim();
-                if (line.startsWith("#")) {
+                if (line.isEmpty() || line.startsWith("#")) {
                     continue;
                 }
-                CRCModel model = parseLine(reader.getLineNumber(), line);
-                if (model != null) {
-                    models.put(model.getName(), model);
+                String name = getValues(line, "name")[0];
+                if (name != null) {
+                    modelIndex.put(name.toUpperCase(Locale.ROOT), lines.size());
+                    lines.add(line);
+                    lineNumbers.add(reader.getLineNumber());
                 }
             }
-            CRCFactory.models = models;
+            CRCFactory.modelLines = lines.toArray(new String[0]);
+            CRCFactory.modelLineNumbers = new int[lineNumbers.size()];
+            for (int i = 0; i < lineNumbers.size(); i++) {
+                CRCFactory.modelLineNumbers[i] = lineNumbers.get(i);
+            }
+            CRCFactory.parsedModels = new AtomicReferenceArray<>(lines.size());
+            CRCFactory.modelIndex = modelIndex;
         } catch (IOException ex) {
             System.err.println("CRCFactory: no model loaded");
             ex.printStackTrace();
         }
     }
 
+    /**
+     * Adds the aliases to the index, they never replace the name of a model.
+     */
+    private static void loadAliases() {
+        URL crcAliasesUrl = CRCFactory.class.getClassLoader().getResource("crc-catalogue-aliases.txt");
+        if (crcAliasesUrl == null) {
+            return;
+        }
+        try (LineNumberReader reader = new LineNumberReader(
+                new InputStreamReader(crcAliasesUrl.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] values = getValues(line, "alias", "name");
+                String alias = values[0];
+                String name = values[1];
+                Integer index = name == null ? null : modelIndex.get(name.toUpperCase(Locale.ROOT));
+                if (alias != null && index != null) {
+                    modelIndex.putIfAbsent(alias.toUpperCase(Locale.ROOT), index);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("CRCFactory: no alias loaded");
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the model of the catalogue line at index, parsing it on first use. Every caller gets the same instance.
+     */
+    private static CRCModel getModel(int index) {
+        CRCModel model = parsedModels.get(index);
+        if (model == null) {
+            // lock free, two threads may parse the same line, the first model set is kept
+            model = parseLine(modelLineNumbers[index], modelLines[index]);
+            if (!parsedModels.compareAndSet(index, null, model == null ? UNPARSABLE : model)) {
+                model = parsedModels.get(index);
+            }
+        }
+        return model == UNPARSABLE ? null : model;
+    }
+
+    /**
+     * Parses a catalogue line, see {@link #getValues(String, String...)}.
+     */
     private static CRCModel parseLine(int lineNumber, String line) {
         try {
-            Properties p = new Properties();
-            p.load(new StringReader(line.replaceAll(" +", "\n")));
-            int width = Integer.parseInt(p.getProperty("width"), 10);
-            long poly = parseLong(p.getProperty("poly"));
-            long init = parseLong(p.getProperty("init"));
-            boolean refIn = Boolean.parseBoolean(p.getProperty("refin"));
-            boolean refOut = Boolean.parseBoolean(p.getProperty("refout"));
-            long xorOut = parseLong(p.getProperty("xorout"));
-            long check = parseLong(p.getProperty("check"));
-            long residue = parseLong(p.getProperty("residue"));
-            String name = unQuote(p.getProperty("name"));
-            return new CRCModel(name, width, poly, init, refIn, refOut, xorOut, check, residue);
+            String[] values = getValues(line, "width", "poly", "init", "refin", "refout", "xorout", "check", "residue",
+                    "name");
+            if (values[0] == null || values[8] == null) {
+                throw new NumberFormatException("missing width or name");
+            }
+            int width = Integer.parseInt(values[0], 10);
+            long poly = values[1] == null ? 0 : parseLong(values[1]);
+            long init = values[2] == null ? 0 : parseLong(values[2]);
+            boolean refIn = Boolean.parseBoolean(values[3]);
+            boolean refOut = Boolean.parseBoolean(values[4]);
+            long xorOut = values[5] == null ? 0 : parseLong(values[5]);
+            long check = values[6] == null ? 0 : parseLong(values[6]);
+            long residue = values[7] == null ? 0 : parseLong(values[7]);
+            return new CRCModel(values[8], width, poly, init, refIn, refOut, xorOut, check, residue);
         } catch (NumberFormatException ex) {
             System.err.println("CRCFactory: Failed to parse model at line " + lineNumber + ":" + line);
-        } catch (IOException ignore) {
         }
         return null;
     }
 
+    /**
+     * Scans a catalogue line of space separated {@code key=value} pairs in a single pass, values may be quoted.
+     * Returns the unquoted values of the keys, in the order of the keys, null for the keys that are missing.
+     */
+    private static String[] getValues(String line, String... keys) {
+        String[] values = new String[keys.length];
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            int keyStart = i;
+            while (i < length && line.charAt(i) != '=' && line.charAt(i) != ' ') {
+                i++;
+            }
+            int keyLength = i - keyStart;
+            if (i < length && line.charAt(i) == '=') {
+                int valueEnd = valueEnd(line, ++i);
+                for (int k = 0; k < keys.length; k++) {
+                    if (keys[k].length() == keyLength && line.startsWith(keys[k], keyStart)) {
+                        values[k] = unQuote(line.substring(i, valueEnd));
+                        break;
+                    }
+                }
+                i = valueEnd;
+            }
+            while (i < length && line.charAt(i) == ' ') {
+                i++;
+            }
+        }
+        return values;
+    }
+
+    private static int valueEnd(String line, int valueStart) {
+        int length = line.length();
+        int i = valueStart;
+        if (i < length && line.charAt(i) == '"') {
+            i = line.indexOf('"', i + 1);
+            return i < 0 ? length : i + 1;
+        }
+        while (i < length && line.charAt(i) != ' ') {
+            i++;
+        }
+        return i;
+    }
+
     private static String unQuote(String input) {
-        if (input.startsWith("\"") && input.endsWith("\"")) {
+        if (input.length() > 1 && input.startsWith("\"") && input.endsWith("\"")) {
             return input.substring(1, input.length() - 1);
         } else {
             return input;
@@ -135,8 +386,7 @@ public class CRCFactory {
     }
 
     private static long parseLong(String input) {
-        input = input.toUpperCase();
-        if (input.startsWith("0X")) {
+        if (input.startsWith("0x") || input.startsWith("0X")) {
             return Long.parseUnsignedLong(input.substring(2), 16);
         } else {
             return Long.parseUnsignedLong(input);
@@ -144,18 +394,28 @@ public class CRCFactory {
     }
 
     public static CRCModel[] getDefinedModels() {
-        return models.values().toArray(new CRCModel[models.size()]);
+        List<CRCModel> models = new ArrayList<>(modelLines.length);
+        for (int i = 0; i < modelLines.length; i++) {
+            CRCModel model = getModel(i);
+            if (model != null) {
+                models.add(model);
+            }
+        }
+        return models.toArray(new CRCModel[models.size()]);
     }
 
     /**
-     * Returns the defined model matching the name or alias.
+     * Returns the defined model matching the name or alias, ignoring the case.
      *
-     * @param modelName the name of the model
-     * @return the model for that name
+     * @param modelName the name or the alias of the model
+     * @return the model for that name, or null when there is none or the name is null
      */
-
     public static CRCModel getModel(String modelName) {
-        return models.get(modelName);
+        if (modelName == null) {
+            return null;
+        }
+        Integer index = modelIndex.get(modelName.toUpperCase(Locale.ROOT));
+        return index == null ? null : getModel(index);
     }
 
     /**
@@ -174,19 +434,238 @@ public class CRCFactory {
 
     /**
      * Returns the most appropriate, usually the fastest, CRC checksum calculator based on the model input.
+     * The class generated at build time for the model, see {@code crc.generated.models} in the pom, is returned as is.
+     * Otherwise the native carry-less multiplication engine is used when the platform supports it, or one of the pure
+     * java engines.
+     * The pure java engine is picked by the width of the model, the models of width &lt;= 8 and &lt;= 16 use the engines
+     * having {@code byte} and {@code char} lookup tables.
+     * After {@link #calibrate()}, or when {@link CRCCalibration#CALIBRATION_FILE_PROPERTY} is set, the models not computed
+     * by the JDK use the engine measured as the fastest for large inputs.
+     * The other models get a {@link HybridCRC}, computing the short updates with a byte-wise engine
+     * (or the calibrated one for small inputs) and the others with the engine chosen above.
      *
      * @param model the {@link CRCModel}
      * @return the most appropriate, usually the fastest, CRC checksum calculator based on the model input.
      */
     public static Checksum getCRC(CRCModel model) {
+        return getCRC(model, SelectionPolicy.FASTEST);
+    }
+
+    /**
+     * Measures the engines on the running JVM and CPU, then uses the fastest of each width class
+     * for the models not computed by the JDK, see {@link CRCCalibration}.
+     *
+     * @return the calibration now used by {@link #getCRC(CRCModel)}.
+     */
+    public static CRCCalibration calibrate() {
+        CRCCalibration calibration = CRCCalibration.calibrate();
+        CRCFactory.calibration = calibration;
+        return calibration;
+    }
+
+    /**
+     * Loads the calibration saved in the file, or calibrates and saves it when the file is missing
+     * or was measured on another JVM or CPU, then uses it like {@link #calibrate()}.
+     *
+     * @param file the calibration file
+     * @return the calibration now used by {@link #getCRC(CRCModel)}.
+     * @throws IOException if the file cannot be read or written
+     */
+    public static CRCCalibration calibrate(Path file) throws IOException {
+        CRCCalibration calibration = CRCCalibration.load(file);
+        if (calibration == null) {
+            calibration = CRCCalibration.calibrate();
+            calibration.save(file);
+        }
+        CRCFactory.calibration = calibration;
+        return calibration;
+    }
+
+    private static CRC calibratedCRC(CRCModel model, boolean smallInputs) {
+        Supplier<CRC> factory = calibratedFactory(model, smallInputs);
+        return factory == null ? null : factory.get();
+    }
+
+    private static Supplier<CRC> calibratedFactory(CRCModel model, boolean smallInputs) {
+        CRCCalibration calibration = CRCFactory.calibration;
+        if (calibration == null) {
+            calibration = CalibrationHolder.startupCalibration;
+        }
+        return calibration == null ? null : calibration.checksumFactory(model, smallInputs);
+    }
+
+    /**
+     * Returns the CRC checksum calculator of the defined model name chosen by the selection policy.
+     *
+     * @param modelName the name of the {@link CRCModel}
+     * @param policy    the {@link SelectionPolicy}
+     * @return the CRC checksum calculator chosen by the selection policy.
+     */
+    public static Checksum getCRC(String modelName, SelectionPolicy policy) {
+        CRCModel crcModel = getModel(modelName);
+        if (crcModel == null) {
+            throw new IllegalArgumentException("CRCFactory: Undefined model " + modelName);
+        }
+        return getCRC(crcModel, policy);
+    }
+
+    /**
+     * Returns the CRC checksum calculator of the model chosen by the selection policy.
+     * Under {@link SelectionPolicy#MEMORY_CONSTRAINED} the JDK implementations are still used, they have no tables
+     * on the heap, while the other models use the nibble engines, {@link CRC32Nibble} and {@link CRC64Nibble}.
+     *
+     * @param model  the {@link CRCModel}
+     * @param policy the {@link SelectionPolicy}
+     * @return the CRC checksum calculator chosen by the selection policy.
+     */
+    public static Checksum getCRC(CRCModel model, SelectionPolicy policy) {
         Supplier<Checksum> factory;
+        if (policy == SelectionPolicy.MEMORY_CONSTRAINED) {
+            if ((factory = constructors.get(model)) != null) {
+                return factory.get();
+            } else if ((factory = intrinsicFactory(model)) != null) {
+                return new CRC32Intrinsic(model, factory);
+            } else if (model.getWidth() <= 32) {
+                return new CRC32Nibble(model);
+            } else if (model.getWidth() <= 64) {
+                return new CRC64Nibble(model);
+            }
+            throw new IllegalArgumentException("CRCFactory: Cannot find a generator for model " + model.getName());
+        }
         if ((factory = constructors.get(model)) != null) {
             return factory.get();
+        } else if ((factory = intrinsicFactory(model)) != null) {
+            return new CRC32Intrinsic(model, factory);
+        } else if ((factory = GeneratedHolder.generatedConstructors.get(model)) != null) {
+            return factory.get();
+        }
+        CRC largeInputsCRC = getLargeInputsCRC(model);
+        CRC smallInputsCRC = calibratedCRC(model, true);
+        if (smallInputsCRC == null) {
+            return new HybridCRC(largeInputsCRC);
+        } else if (smallInputsCRC.getClass() == largeInputsCRC.getClass()) {
+            return largeInputsCRC;
+        }
+        return new HybridCRC(smallInputsCRC, largeInputsCRC, HybridCRC.getDefaultThreshold(model.getWidth()));
+    }
+
+    private static CRC getLargeInputsCRC(CRCModel model) {
+        return largeInputsFactory(model).get();
+    }
+
+    /**
+     * Returns the factory of the engines {@link #getCRC(CRCModel)} uses for large inputs, resolved once for the model.
+     * The callers updating each engine once with a large part of their input, like {@link ParallelCRC}
+     * and {@link FileCRC}, use it instead of creating a {@link HybridCRC} for every part.
+     */
+    static Supplier<Checksum> getLargeInputsFactory(CRCModel model) {
+        Supplier<Checksum> factory;
+        if ((factory = constructors.get(model)) != null) {
+            return factory;
+        } else if ((factory = intrinsicFactory(model)) != null) {
+            Supplier<Checksum> intrinsic = factory;
+            return () -> new CRC32Intrinsic(model, intrinsic);
+        } else if ((factory = GeneratedHolder.generatedConstructors.get(model)) != null) {
+            return factory;
+        }
+        Supplier<CRC> largeInputsFactory = largeInputsFactory(model);
+        return largeInputsFactory::get;
+    }
+
+    /**
+     * Updates an engine of {@link #getLargeInputsFactory(CRCModel)} with the remaining bytes of {@code buffer}.
+     * The engine can be a JDK checksum, and on Java 8 {@code Checksum} has no {@code update(ByteBuffer)},
+     * only {@code java.util.zip.CRC32} and {@link CRC} declare it there.
+     */
+    static void update(Checksum checksum, ByteBuffer buffer) {
+        if (checksum instanceof CRC) {
+            ((CRC) checksum).update(buffer);
+        } else if (checksum instanceof java.util.zip.CRC32) {
+            ((java.util.zip.CRC32) checksum).update(buffer);
+        } else {
+            checksum.update(buffer); // Java 9 or later, e.g. java.util.zip.CRC32C
+        }
+    }
+
+    private static Supplier<CRC> largeInputsFactory(CRCModel model) {
+        Supplier<CRC> calibrated = calibratedFactory(model, false);
+        return calibrated != null ? calibrated : defaultLargeInputsFactory(model, NativeHolder.clmulAvailable);
+    }
+
+    /**
+     * Returns the factory of the engines used for large inputs when there is no calibration.
+     * The CRC8 and CRC16 models use their narrow engines, whose 2 KB and 8 KB of tables fit in L1 next to
+     * the ones of the other models, also when the carry-less multiplication engine is available: it extends
+     * the slicing-by-16 engine of the 64 bits register and would carry 32 KB of tables for each of them.
+     * The wider models use the carry-less multiplication engine when the native library and PCLMULQDQ are available.
+     */
+    static Supplier<CRC> defaultLargeInputsFactory(CRCModel model, boolean clmulAvailable) {
+        if (model.getWidth() > 16 && model.getWidth() <= 64 && clmulAvailable) {
+            return () -> new CRC64CLMul(model);
+        } else if (model.getWidth() <= 8) {
+            return () -> new CRC8SlicingBy8(model);
+        } else if (model.getWidth() <= 16) {
+            return model.getRefIn() ? () -> new CRC16SlicingBy16Reflected(model) :
+                    () -> new CRC16SlicingBy16Unreflected(model);
         } else if (model.getWidth() <= 32) {
-            return new CRC32SlicingBy8(model);
+            if (!varHandleAvailable) {
+                return () -> new CRC32SlicingBy8(model);
+            }
+            return model.getRefIn() ? () -> new CRC32SlicingBy16FlatReflected(model) :
+                    () -> new CRC32SlicingBy16FlatUnreflected(model);
         } else if (model.getWidth() <= 64) {
-            return new CRC64SlicingBy16(model);
+            if (!varHandleAvailable) {
+                return () -> new CRC64SlicingBy16(model);
+            }
+            return model.getRefIn() ? () -> new CRC64SlicingBy16FlatReflected(model) :
+                    () -> new CRC64SlicingBy16FlatUnreflected(model);
         }
         throw new IllegalArgumentException("CRCFactory: Cannot find a generator for model " + model.getName());
     }
+
+    /**
+     * Returns the stateless, thread safe engine of the defined model name.
+     *
+     * @param modelName the name of the {@link CRCModel}
+     * @return the engine shared by all the callers using this model.
+     */
+    public static CRCEngine getEngine(String modelName) {
+        CRCModel crcModel = getModel(modelName);
+        if (crcModel == null) {
+            throw new IllegalArgumentException("CRCFactory: Undefined model " + modelName);
+        }
+        return getEngine(crcModel);
+    }
+
+    /**
+     * Returns the stateless, thread safe engine of the model, created once and then shared by all the callers.
+     *
+     * @param model the {@link CRCModel}
+     * @return the engine shared by all the callers using this model.
+     */
+    public static CRCEngine getEngine(CRCModel model) {
+        if (model.getWidth() > 64) {
+            throw new IllegalArgumentException("CRCFactory: Cannot find an engine for model " + model.getName());
+        }
+        return engines.computeIfAbsent(model,
+                m -> NativeHolder.clmulAvailable ? new CRC64CLMulEngine(m) : new CRC64Engine(m));
+    }
+
+    /**
+     * Returns the stateless, thread safe engine of the model generated at runtime for this model only,
+     * in a hidden class having the parameters and the tables of the model as constants.
+     * Falls back to {@link #getEngine(CRCModel)} when the runtime does not support hidden classes (before java 16).
+     *
+     * @param model the {@link CRCModel}
+     * @return the specialized engine shared by all the callers using this model.
+     */
+    public static CRCEngine getSpecializedEngine(CRCModel model) {
+        if (!CRC64EngineSpecializer.isSupported()) {
+            return getEngine(model);
+        }
+        if (model.getWidth() > 64) {
+            throw new IllegalArgumentException("CRCFactory: Cannot find an engine for model " + model.getName());
+        }
+        return specializedEngines.computeIfAbsent(model, CRC64EngineSpecializer::specialize);
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc;
+
+import ro.derbederos.crc.purejava.CRC32;
+import ro.derbederos.crc.purejava.CRC64;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+/**
+ * Computes the CRC of files of any size.
+ * <p>
+ * In the memory mapped mode the file is mapped in windows smaller than 2GB, the CRCs of the windows are computed
+ * in parallel on a {@link ForkJoinPool}, then merged pairwise with {@link CRC#concatenate(long, long, long)}.
+ * In the sequential mode the file is read in a single thread, for the file systems where mapping is a poor fit.
+ * Both modes return the same value as an engine updated with the whole content of the file.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class FileCRC {
+
+    /**
+     * Default size, in bytes, of the mapped windows.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private final CRCModel crcModel;
+    private final Supplier<? extends Checksum> engineFactory;
+    private final CRC combiner;
+    private final int windowSize;
+    private final ForkJoinPool pool;
+    private final boolean memoryMapped;
+
+    /**
+     * Creates a memory mapped file CRC calculator using the engines {@link CRCFactory#getCRC(CRCModel)} uses
+     * for large inputs, windows of {@link #DEFAULT_WINDOW_SIZE} bytes and the common pool.
+     *
+     * @param crcModel the {@link CRCModel}
+     */
+    public FileCRC(CRCModel crcModel) {
+        this(crcModel, CRCFactory.getLargeInputsFactory(crcModel), DEFAULT_WINDOW_SIZE, ForkJoinPool.commonPool(),
+                true);
+    }
+
+    /**
+     * Creates a file CRC calculator.
+     *
+     * @param crcModel      the {@link CRCModel}
+     * @param engineFactory creates the engines computing the CRC of the windows, they must implement the crcModel
+     * @param windowSize    the size, in bytes, of the mapped windows
+     * @param pool          the pool computing the windows, its parallelism bounds the number of mapped windows in use
+     * @param memoryMapped  true to map the file, false to read it sequentially
+     */
+    public FileCRC(CRCModel crcModel, Supplier<? extends Checksum> engineFactory, int windowSize, ForkJoinPool pool,
+                   boolean memoryMapped) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("FileCRC: window size must be positive " + windowSize);
+        }
+        this.crcModel = Objects.requireNonNull(crcModel, "crcModel");
+        this.engineFactory = Objects.requireNonNull(engineFactory, "engineFactory");
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.windowSize = windowSize;
+        this.memoryMapped = memoryMapped;
+        // concatenate does not depend on the state of the engine
+        this.combiner = crcModel.getWidth() <= 32 ? new CRC32(crcModel) : new CRC64(crcModel);
+    }
+
+    public CRCModel getCRCModel() {
+        return crcModel;
+    }
+
+    public long compute(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return compute(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * Computes the CRC of (size) bytes of the channel, starting at (position).
+     * The position of the channel is not used and not modified.
+     */
+    public long compute(FileChannel channel, long position, long size) throws IOException {
+        if (position < 0 || size < 0) {
+            throw new IllegalArgumentException("FileCRC: negative position or size");
+        }
+        if (!memoryMapped) {
+            return computeSequential(channel, position, size);
+        }
+        long windows = (size + windowSize - 1) / windowSize;
+        if (windows <= 1) {
+            return computeWindow(channel, position, size);
+        }
+        try {
+            return pool.invoke(new WindowsTask(channel, position, size, 0, windows));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private long computeSequential(FileChannel channel, long position, long size) throws IOException {
+        Checksum checksum = engineFactory.get();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_BUFFER_SIZE, Math.max(size, 1)));
+        long end = position + size;
+        while (position < end) {
+            ((Buffer) buffer).clear();
+            ((Buffer) buffer).limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("FileCRC: unexpected end of file at " + position);
+            }
+            checksum.update(buffer.array(), 0, read);
+            position += read;
+        }
+        return checksum.getValue();
+    }
+
+    private long computeWindow(FileChannel channel, long position, long size) throws IOException {
+        Checksum checksum = engineFactory.get();
+        if (size > 0) {
+            CRCFactory.update(checksum, channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+        }
+        return checksum.getValue();
+    }
+
+    /**
+     * Computes the CRC of the windows [from, to) of a region, splitting the range in halves.
+     */
+    private final class WindowsTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long position;
+        private final long size;
+        private final long from;
+        private final long to;
+
+        WindowsTask(FileChannel channel, long position, long size, long from, long to) {
+            this.channel = channel;
+            this.position = position;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 1) {
+                long start = from * windowSize;
+                try {
+                    return computeWindow(channel, position + start, Math.min(windowSize, size - start));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            long middle = (from + to) >>> 1;
+            long bytesB = Math.min(to * windowSize, size) - middle * windowSize;
+            WindowsTask taskA = new WindowsTask(channel, position, size, from, middle);
+            taskA.fork();
+            long crcB = new WindowsTask(channel, position, size, middle, to).compute();
+            long crcA = taskA.join();
+            return combiner.concatenate(crcA, crcB, bytesB);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc;
+
+import ro.derbederos.crc.purejava.CRC16Reflected;
+import ro.derbederos.crc.purejava.CRC16Unreflected;
+import ro.derbederos.crc.purejava.CRC32Reflected;
+import ro.derbederos.crc.purejava.CRC32Unreflected;
+import ro.derbederos.crc.purejava.CRC64Reflected;
+import ro.derbederos.crc.purejava.CRC64Unreflected;
+import ro.derbederos.crc.purejava.CRC8;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * CRC calculator choosing, for each update, between a byte-wise engine for the small inputs and an engine
+ * for the large ones, e.g. slicing-by-16 or the native one, both computing the same model.
+ * <p>
+ * The updates shorter than the threshold use the byte-wise engine, which reads a single table of 256 entries
+ * and keeps the cache of the slicing engines out of the short messages. The register moves from one engine to the other
+ * only when consecutive updates do not use the same one, so a message computed by a single update costs no transfer.
+ * <p>
+ * The default thresholds are per width class, 8, 16, 32 and 64 bits, and can be changed with the system properties
+ * {@code ro.derbederos.crc.hybrid.threshold.<width class>}, e.g. {@code -Dro.derbederos.crc.hybrid.threshold.32=128}.
+ * <p>
+ * Instances are not thread safe, like the engines they use.
+ */
+public final class HybridCRC implements CRC {
+
+    /**
+     * The prefix of the system properties setting the default threshold of a width class.
+     */
+    public static final String THRESHOLD_PROPERTY_PREFIX = "ro.derbederos.crc.hybrid.threshold.";
+
+    private static final int THRESHOLD_8 = getThresholdProperty(8, 16);
+    private static final int THRESHOLD_16 = getThresholdProperty(16, 16);
+    private static final int THRESHOLD_32 = getThresholdProperty(32, 16);
+    private static final int THRESHOLD_64 = getThresholdProperty(64, 16);
+
+    private final CRC smallInputsCRC;
+    private final CRC largeInputsCRC;
+    private final int threshold;
+    private CRC crc;
+
+    /**
+     * Creates a hybrid calculator using the byte-wise engine of the width of the model for the small inputs
+     * and the default threshold of its width class.
+     *
+     * @param largeInputsCRC the engine of the large inputs
+     */
+    public HybridCRC(CRC largeInputsCRC) {
+        this(byteWiseCRC(largeInputsCRC.getCRCModel()), largeInputsCRC,
+                getDefaultThreshold(largeInputsCRC.getCRCModel().getWidth()));
+    }
+
+    /**
+     * Creates a hybrid calculator.
+     *
+     * @param smallInputsCRC the engine of the small inputs
+     * @param largeInputsCRC the engine of the large inputs, computing the same model
+     * @param threshold      the updates of this size, in bytes, or larger use the engine of the large inputs
+     */
+    public HybridCRC(CRC smallInputsCRC, CRC largeInputsCRC, int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("HybridCRC: threshold must not be negative " + threshold);
+        }
+        this.smallInputsCRC = Objects.requireNonNull(smallInputsCRC, "smallInputsCRC");
+        this.largeInputsCRC = Objects.requireNonNull(largeInputsCRC, "largeInputsCRC");
+        if (smallInputsCRC.getCRCModel() != largeInputsCRC.getCRCModel()) {
+            throw new IllegalArgumentException("HybridCRC: the engines compute different models " +
+                    smallInputsCRC.getCRCModel().getName() + " and " + largeInputsCRC.getCRCModel().getName());
+        }
+        this.threshold = threshold;
+        this.crc = smallInputsCRC;
+        reset();
+    }
+
+    /**
+     * Returns the threshold of the width class of the model, set by the system property of the width class or
+     * 16 bytes. With warm caches the slicing engines match the byte-wise ones from about 16 bytes, larger thresholds
+     * pay off when the short messages are interleaved with other work evicting the slicing tables.
+     *
+     * @param width the width of the model
+     * @return the size, in bytes, from which the updates use the engine of the large inputs.
+     */
+    public static int getDefaultThreshold(int width) {
+        if (width <= 8) {
+            return THRESHOLD_8;
+        } else if (width <= 16) {
+            return THRESHOLD_16;
+        } else if (width <= 32) {
+            return THRESHOLD_32;
+        }
+        return THRESHOLD_64;
+    }
+
+    private static int getThresholdProperty(int widthClass, int defaultThreshold) {
+        String threshold = System.getProperty(THRESHOLD_PROPERTY_PREFIX + widthClass);
+        if (threshold != null) {
+            try {
+                return Math.max(0, Integer.parseInt(threshold.trim()));
+            } catch (NumberFormatException ex) {
+                System.err.println("HybridCRC: invalid threshold " + threshold + " for width class " + widthClass);
+            }
+        }
+        return defaultThreshold;
+    }
+
+    private static CRC byteWiseCRC(CRCModel crcModel) {
+        if (crcModel.getWidth() <= 8) {
+            return new CRC8(crcModel);
+        } else if (crcModel.getWidth() <= 16) {
+            return crcModel.getRefIn() ? new CRC16Reflected(crcModel) : new CRC16Unreflected(crcModel);
+        } else if (crcModel.getWidth() <= 32) {
+            return crcModel.getRefIn() ? new CRC32Reflected(crcModel) : new CRC32Unreflected(crcModel);
+        }
+        return crcModel.getRefIn() ? new CRC64Reflected(crcModel) : new CRC64Unreflected(crcModel);
+    }
+
+    /**
+     * @return the engine of the updates shorter than the threshold.
+     */
+    public CRC getSmallInputsCRC() {
+        return smallInputsCRC;
+    }
+
+    /**
+     * @return the engine of the updates not shorter than the threshold.
+     */
+    public CRC getLargeInputsCRC() {
+        return largeInputsCRC;
+    }
+
+    /**
+     * @return the size, in bytes, from which the updates use the engine of the large inputs.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private CRC use(CRC engine) {
+        if (crc != engine) {
+            engine.setValue(crc.getValue());
+            crc = engine;
+        }
+        return engine;
+    }
+
+    @Override
+    public CRCModel getCRCModel() {
+        return smallInputsCRC.getCRCModel();
+    }
+
+    @Override
+    public void reset() {
+        crc = smallInputsCRC;
+        crc.reset();
+    }
+
+    @Override
+    public void update(int b) {
+        use(smallInputsCRC).update(b);
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        use(len < threshold ? smallInputsCRC : largeInputsCRC).update(src, offset, len);
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        use(buffer.remaining() < threshold ? smallInputsCRC : largeInputsCRC).update(buffer);
+    }
+
+    @Override
+    public void updateShort(short v, ByteOrder order) {
+        use(2 < threshold ? smallInputsCRC : largeInputsCRC).updateShort(v, order);
+    }
+
+    @Override
+    public void updateInt(int v, ByteOrder order) {
+        use(4 < threshold ? smallInputsCRC : largeInputsCRC).updateInt(v, order);
+    }
+
+    @Override
+    public void updateLong(long v, ByteOrder order) {
+        use(8 < threshold ? smallInputsCRC : largeInputsCRC).updateLong(v, order);
+    }
+
+    @Override
+    public void update(long[] src, int offset, int len, ByteOrder order) {
+        use(8L * len < threshold ? smallInputsCRC : largeInputsCRC).update(src, offset, len, order);
+    }
+
+    @Override
+    public void update(int[] src, int offset, int len, ByteOrder order) {
+        use(4L * len < threshold ? smallInputsCRC : largeInputsCRC).update(src, offset, len, order);
+    }
+
+    @Override
+    public void update(short[] src, int offset, int len, ByteOrder order) {
+        use(2L * len < threshold ? smallInputsCRC : largeInputsCRC).update(src, offset, len, order);
+    }
+
+    @Override
+    public void updateUTF8(CharSequence s, int start, int end) {
+        // at least one byte for each character
+        use(end - start < threshold ? smallInputsCRC : largeInputsCRC).updateUTF8(s, start, end);
+    }
+
+    @Override
+    public void updateBits(long b, int bits) {
+        crc.updateBits(b, bits);
+    }
+
+    @Override
+    public long getValue() {
+        return crc.getValue();
+    }
+
+    @Override
+    public void setValue(long crc) {
+        this.crc = smallInputsCRC;
+        this.crc.setValue(crc);
+    }
+
+    @Override
+    public long getCrcOfCrc() {
+        return smallInputsCRC.getCrcOfCrc();
+    }
+
+    @Override
+    public long concatenate(long crcA, long crcB, long bytesB) {
+        return smallInputsCRC.concatenate(crcA, crcB, bytesB);
+    }
+
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytesB) {
+        return smallInputsCRC.concatenateOperator(bytesB);
+    }
+
+    @Override
+    public long concatenateZeroes(long crcA, long bytesB) {
+        return smallInputsCRC.concatenateZeroes(crcA, bytesB);
+    }
+
+    @Override
+    public LongUnaryOperator concatenateZeroesOperator(long bytesB) {
+        return smallInputsCRC.concatenateZeroesOperator(bytesB);
+    }
+}
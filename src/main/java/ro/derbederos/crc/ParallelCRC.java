@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc;
+
+import ro.derbederos.crc.purejava.CRC32;
+import ro.derbederos.crc.purejava.CRC64;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+/**
+ * Computes the CRC of large inputs on a {@link ForkJoinPool}.
+ * <p>
+ * The input is split in halves until the parts are not larger than the threshold. The CRC of each part is computed
+ * by the engine {@link CRCFactory#getCRC(CRCModel)} uses for large inputs, then the results are merged pairwise with
+ * {@link CRC#concatenate(long, long, long)}. The result is identical to the one computed sequentially.
+ * Inputs are not split when the pool has a parallelism of 1.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ParallelCRC {
+
+    /**
+     * Default size, in bytes, of the parts computed sequentially.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 20;
+
+    private final CRCModel crcModel;
+    private final Supplier<? extends Checksum> engineFactory;
+    private final CRC combiner;
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a parallel CRC calculator using the {@link #DEFAULT_THRESHOLD} and the common pool.
+     *
+     * @param crcModel the {@link CRCModel}
+     */
+    public ParallelCRC(CRCModel crcModel) {
+        this(crcModel, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parallel CRC calculator.
+     *
+     * @param crcModel  the {@link CRCModel}
+     * @param threshold inputs up to this size, in bytes, are computed sequentially, larger ones are split
+     * @param pool      the pool running the tasks
+     */
+    public ParallelCRC(CRCModel crcModel, int threshold, ForkJoinPool pool) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("ParallelCRC: threshold must be positive " + threshold);
+        }
+        this.crcModel = Objects.requireNonNull(crcModel, "crcModel");
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.threshold = threshold;
+        // resolved once, every part gets a new engine of the same class
+        this.engineFactory = CRCFactory.getLargeInputsFactory(crcModel);
+        // concatenate does not depend on the state of the engine
+        this.combiner = crcModel.getWidth() <= 32 ? new CRC32(crcModel) : new CRC64(crcModel);
+    }
+
+    public CRCModel getCRCModel() {
+        return crcModel;
+    }
+
+    public long compute(byte[] b) {
+        return compute(b, 0, b.length);
+    }
+
+    public long compute(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException("offset " + off + ", len " + len + ", length " + b.length);
+        }
+        if (len <= threshold || pool.getParallelism() == 1) {
+            return computeSequential(b, off, len);
+        }
+        return pool.invoke(new ArrayTask(b, off, len));
+    }
+
+    /**
+     * Computes the CRC of the bytes from the position to the limit of the buffer.
+     * The position of the buffer is advanced to the limit.
+     */
+    public long compute(ByteBuffer buffer) {
+        int position = buffer.position();
+        int len = buffer.limit() - position;
+        long crc;
+        if (len <= threshold || pool.getParallelism() == 1) {
+            crc = computeSequential(buffer, position, len);
+        } else {
+            crc = pool.invoke(new BufferTask(buffer, position, len));
+        }
+        ((Buffer) buffer).position(buffer.limit());
+        return crc;
+    }
+
+    private long computeSequential(byte[] b, int off, int len) {
+        Checksum checksum = engineFactory.get();
+        checksum.update(b, off, len);
+        return checksum.getValue();
+    }
+
+    private long computeSequential(ByteBuffer buffer, int position, int len) {
+        ByteBuffer part = buffer.duplicate();
+        ((Buffer) part).limit(position + len);
+        ((Buffer) part).position(position);
+        Checksum checksum = engineFactory.get();
+        CRCFactory.update(checksum, part);
+        return checksum.getValue();
+    }
+
+    private final class ArrayTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] b;
+        private final int off;
+        private final int len;
+
+        ArrayTask(byte[] b, int off, int len) {
+            this.b = b;
+            this.off = off;
+            this.len = len;
+        }
+
+        @Override
+        protected Long compute() {
+            if (len <= threshold) {
+                return computeSequential(b, off, len);
+            }
+            int lenA = len >>> 1;
+            int lenB = len - lenA;
+            ArrayTask taskA = new ArrayTask(b, off, lenA);
+            taskA.fork();
+            long crcB = new ArrayTask(b, off + lenA, lenB).compute();
+            long crcA = taskA.join();
+            return combiner.concatenate(crcA, crcB, lenB);
+        }
+    }
+
+    private final class BufferTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer buffer;
+        private final int position;
+        private final int len;
+
+        BufferTask(ByteBuffer buffer, int position, int len) {
+            this.buffer = buffer;
+            this.position = position;
+            this.len = len;
+        }
+
+        @Override
+        protected Long compute() {
+            if (len <= threshold) {
+                return computeSequential(buffer, position, len);
+            }
+            int lenA = len >>> 1;
+            int lenB = len - lenA;
+            BufferTask taskA = new BufferTask(buffer, position, lenA);
+            taskA.fork();
+            long crcB = new BufferTask(buffer, position + lenA, lenB).compute();
+            long crcA = taskA.join();
+            return combiner.concatenate(crcA, crcB, lenB);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.clmul;
+
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import static java.lang.Long.reverse;
+
+/**
+ * CRC implementation that can compute CRC with width &lt;= 64 using different models, on cpus supporting
+ * the PCLMULQDQ instruction.
+ * We use the algorithm described by Vinodh Gopal et al. in "Fast CRC Computation for Generic Polynomials
+ * Using PCLMULQDQ Instruction", Intel, 2009, implemented natively in src/main/c/crc-clmul-x64-jni.c.
+ * The polynomial is aligned to the 64 bits register, so the same folding and Barrett reduction work for any width.
+ * Short inputs and the last (len % 16) bytes are processed by the slicing-by-16 tables.
+ */
+public class CRC64CLMul extends CRC64SlicingBy16 {
+
+    // below this length the jni call costs more than the tables, also used by CRC64CLMulEngine
+    static final int NATIVE_THRESHOLD = 128;
+
+    final long[] constants; // also used by CRC64CLMulEngine, must not be modified
+
+    public CRC64CLMul(CRCModel crcModel) {
+        super(crcModel);
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("CRC64CLMul: the native library is not available on this platform");
+        }
+        this.constants = initConstants();
+    }
+
+    /**
+     * Returns true when the native library is loaded and the cpu supports carry-less multiplication.
+     */
+    public static boolean isSupported() {
+        return NativeCLMul.isAvailable();
+    }
+
+    /**
+     * Folding constants (x ** 576, x ** 512, x ** 448, x ** 384, x ** 320, x ** 256, x ** 192, x ** 128 mod G)
+     * followed by the Barrett constant floor(x ** 128 / G) and G, without their x ** 64 terms.
+     * For the reflected register the values are bit reversed and the exponents lowered by one.
+     */
+    private long[] initConstants() {
+        long[] k = new long[NativeCLMul.CONSTANTS_COUNT];
+        int adjust = refIn ? 1 : 0;
+        for (int i = 0; i < 8; i++) {
+            int exponent = 576 - 64 * i;
+            k[i] = registerXpowN(exponent - adjust);
+        }
+        long g = refIn ? reverse(poly) : poly;
+        // long division of x ** 128 by G, the quotient bit of x ** 64 being always 1
+        long remainder = g;
+        long mu = 0;
+        for (int i = 63; i >= 0; i--) {
+            boolean carry = remainder < 0;
+            remainder <<= 1;
+            if (carry) {
+                remainder ^= g;
+                mu |= 1L << i;
+            }
+        }
+        k[8] = refIn ? reverse(mu) : mu;
+        k[9] = poly;
+        return k;
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (len < NATIVE_THRESHOLD) {
+            super.update(src, offset, len);
+            return;
+        }
+        if (offset < 0 || len > src.length - offset) {
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", len " + len + ", length " + src.length);
+        }
+        int folded = len & ~15;
+        if (refIn) {
+            crc = NativeCLMul.updateReflected(constants, crc, src, offset, folded);
+        } else {
+            crc = NativeCLMul.updateUnreflected(constants, crc, src, offset, folded);
+        }
+        super.update(src, offset + folded, len - folded);
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int len = buffer.limit() - position;
+        if (len < NATIVE_THRESHOLD) {
+            super.update(buffer);
+        } else if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, len);
+            ((Buffer) buffer).position(buffer.limit());
+        } else if (buffer.isDirect()) {
+            int folded = len & ~15;
+            if (refIn) {
+                crc = NativeCLMul.updateReflectedDirect(constants, crc, buffer, position, folded);
+            } else {
+                crc = NativeCLMul.updateUnreflectedDirect(constants, crc, buffer, position, folded);
+            }
+            ((Buffer) buffer).position(position + folded);
+            super.update(buffer);
+        } else {
+            super.update(buffer);
+        }
+    }
+}
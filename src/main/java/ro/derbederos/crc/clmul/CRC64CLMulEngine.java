@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.clmul;
+
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.purejava.CRC64Engine;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import static ro.derbederos.crc.clmul.CRC64CLMul.NATIVE_THRESHOLD;
+
+/**
+ * Stateless engine with width &lt;= 64 folding the long inputs with the native carry-less multiplication,
+ * see {@link CRC64CLMul}, and the rest with the slicing-by-16 tables.
+ */
+public class CRC64CLMulEngine extends CRC64Engine {
+
+    private final long[] constants; // shared with the CRC64CLMul it comes from, must not be modified
+    private final boolean refIn;
+
+    public CRC64CLMulEngine(CRCModel crcModel) {
+        super(crcModel);
+        this.constants = new CRC64CLMul(crcModel).constants;
+        this.refIn = crcModel.getRefIn();
+    }
+
+    @Override
+    public long update(long state, byte[] b, int off, int len) {
+        if (len < NATIVE_THRESHOLD) {
+            return super.update(state, b, off, len);
+        }
+        if (off < 0 || len > b.length - off) {
+            throw new ArrayIndexOutOfBoundsException("offset " + off + ", len " + len + ", length " + b.length);
+        }
+        int folded = len & ~15;
+        if (refIn) {
+            state = NativeCLMul.updateReflected(constants, state, b, off, folded);
+        } else {
+            state = NativeCLMul.updateUnreflected(constants, state, b, off, folded);
+        }
+        return super.update(state, b, off + folded, len - folded);
+    }
+
+    @Override
+    public long update(long state, ByteBuffer buffer) {
+        int position = buffer.position();
+        int len = buffer.limit() - position;
+        if (len < NATIVE_THRESHOLD) {
+            return super.update(state, buffer);
+        } else if (buffer.hasArray()) {
+            state = update(state, buffer.array(), buffer.arrayOffset() + position, len);
+            ((Buffer) buffer).position(buffer.limit());
+            return state;
+        } else if (buffer.isDirect()) {
+            int folded = len & ~15;
+            if (refIn) {
+                state = NativeCLMul.updateReflectedDirect(constants, state, buffer, position, folded);
+            } else {
+                state = NativeCLMul.updateUnreflectedDirect(constants, state, buffer, position, folded);
+            }
+            ((Buffer) buffer).position(position + folded);
+        }
+        return super.update(state, buffer);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.clmul;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Loader and entry points of the native carry-less multiplication library, built from src/main/c for Linux x86-64.
+ * The library is taken from java.library.path when present there, otherwise it is extracted from the resources
+ * to a temporary file. It is used only when the cpu supports PCLMULQDQ, SSSE3 and SSE4.1.
+ */
+final class NativeCLMul {
+
+    private static final String LIBRARY_NAME = "crc-clmul";
+    private static final String LIBRARY_RESOURCE = "/native/linux-x86_64/lib" + LIBRARY_NAME + ".so";
+
+    static final int CONSTANTS_COUNT = 10;
+
+    private static final boolean available = load();
+
+    private NativeCLMul() {
+    }
+
+    static boolean isAvailable() {
+        return available;
+    }
+
+    private static boolean load() {
+        String os = System.getProperty("os.name", "");
+        String arch = System.getProperty("os.arch", "");
+        if (!os.startsWith("Linux") || !(arch.equals("amd64") || arch.equals("x86_64"))) {
+            return false;
+        }
+        try {
+            try {
+                System.loadLibrary(LIBRARY_NAME);
+            } catch (UnsatisfiedLinkError ignore) {
+                Path library = extractLibrary();
+                if (library == null) {
+                    return false;
+                }
+                System.load(library.toString());
+            }
+            return isSupported();
+        } catch (IOException | SecurityException | UnsatisfiedLinkError ignore) {
+            return false;
+        }
+    }
+
+    private static Path extractLibrary() throws IOException {
+        try (InputStream in = NativeCLMul.class.getResourceAsStream(LIBRARY_RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            Path library = Files.createTempFile("lib" + LIBRARY_NAME, ".so");
+            library.toFile().deleteOnExit();
+            Files.copy(in, library, StandardCopyOption.REPLACE_EXISTING);
+            return library;
+        }
+    }
+
+    private static native boolean isSupported();
+
+    /**
+     * Folds len bytes of src into the reflected register crc, len &gt;= 64 and multiple of 16.
+     * The bounds are not checked by the native code.
+     */
+    static native long updateReflected(long[] constants, long crc, byte[] src, int offset, int len);
+
+    /**
+     * Folds len bytes of src into the unreflected register crc, len &gt;= 64 and multiple of 16.
+     * The bounds are not checked by the native code.
+     */
+    static native long updateUnreflected(long[] constants, long crc, byte[] src, int offset, int len);
+
+    /**
+     * Same as {@link #updateReflected(long[], long, byte[], int, int)} for a direct buffer.
+     */
+    static native long updateReflectedDirect(long[] constants, long crc, ByteBuffer src, int offset, int len);
+
+    /**
+     * Same as {@link #updateUnreflected(long[], long, byte[], int, int)} for a direct buffer.
+     */
+    static native long updateUnreflectedDirect(long[] constants, long crc, ByteBuffer src, int offset, int len);
+}
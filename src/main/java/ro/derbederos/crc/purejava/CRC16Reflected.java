@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Byte-wise CRC implementation for reflected models ({@code refIn = true}) with width &lt;= 16.
+ * It computes the same values as {@link CRC16}, but the orientation is fixed when the instance
+ * is created, so the update methods carry no {@code refIn} branch and their loops can be inlined fully
+ * at a monomorphic call site.
+ */
+public final class CRC16Reflected extends CRC16 {
+
+    private final char[] lookupTable; // shared between instances, must not be modified
+
+    public CRC16Reflected(CRCModel crcModel) {
+        super(crcModel);
+        if (!refIn) {
+            throw new IllegalArgumentException("CRC16Reflected: model " + crcModel.getName() +
+                    " is not a reflected model");
+        }
+        this.lookupTable = lookupTables[0];
+    }
+
+    @Override
+    public void update(int b) {
+        int localCrc = crc;
+        crc = (localCrc >>> 8) ^ lookupTable[(localCrc ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        char[] lookupTable = this.lookupTable;
+        int localCrc = crc;
+        for (int i = offset; i < offset + len; i++) {
+            int b = src[i];
+            localCrc = (localCrc >>> 8) ^ lookupTable[(localCrc ^ b) & 0xFF];
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            char[] lookupTable = this.lookupTable;
+            int localCrc = crc;
+            for (int i = position; i < limit; i++) {
+                int b = buffer.get(i);
+                localCrc = (localCrc >>> 8) ^ lookupTable[(localCrc ^ b) & 0xFF];
+            }
+            crc = localCrc;
+        }
+        ((Buffer) buffer).position(limit);
+    }
+}
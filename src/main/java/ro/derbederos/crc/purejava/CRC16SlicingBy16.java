@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 16 using different models.
+ * It uses slicing-by-16 method (16 tables of 256 chars each, 8 KiB per polynomial).
+ * We use the algorithm described by Michael E. Kounavis and Frank L. Berry in
+ * "A Systematic Approach to Building High Performance, Software-based, CRC Generators",
+ * Intel Research and Development, 2005
+ */
+public class CRC16SlicingBy16 extends CRC16 {
+
+    public CRC16SlicingBy16(CRCModel crcModel) {
+        super(crcModel, 16);
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (refIn) {
+            crc = updateReflected(lookupTables, crc, src, offset, len);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, src, offset, len);
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else if (refIn) {
+            crc = updateReflected(lookupTables, crc, buffer, position, limit - position);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    static int updateReflected(char[][] lookupTables, int crc, byte[] src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            localCrc = lookupTables[15][(localCrc ^ src[index++]) & 0xFF] ^
+                    lookupTables[14][((localCrc >>> 8) ^ src[index++]) & 0xFF] ^
+                    lookupTables[13][src[index++] & 0xFF] ^
+                    lookupTables[12][src[index++] & 0xFF] ^
+                    lookupTables[11][src[index++] & 0xFF] ^
+                    lookupTables[10][src[index++] & 0xFF] ^
+                    lookupTables[9][src[index++] & 0xFF] ^
+                    lookupTables[8][src[index++] & 0xFF] ^
+                    lookupTables[7][src[index++] & 0xFF] ^
+                    lookupTables[6][src[index++] & 0xFF] ^
+                    lookupTables[5][src[index++] & 0xFF] ^
+                    lookupTables[4][src[index++] & 0xFF] ^
+                    lookupTables[3][src[index++] & 0xFF] ^
+                    lookupTables[2][src[index++] & 0xFF] ^
+                    lookupTables[1][src[index++] & 0xFF] ^
+                    lookupTables[0][src[index++] & 0xFF];
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = updateByteReflected(lookupTables, localCrc, src[index++]);
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateUnreflected(char[][] lookupTables, int crc, byte[] src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            localCrc = lookupTables[15][((localCrc >>> 8) ^ src[index++]) & 0xFF] ^
+                    lookupTables[14][(localCrc ^ src[index++]) & 0xFF] ^
+                    lookupTables[13][src[index++] & 0xFF] ^
+                    lookupTables[12][src[index++] & 0xFF] ^
+                    lookupTables[11][src[index++] & 0xFF] ^
+                    lookupTables[10][src[index++] & 0xFF] ^
+                    lookupTables[9][src[index++] & 0xFF] ^
+                    lookupTables[8][src[index++] & 0xFF] ^
+                    lookupTables[7][src[index++] & 0xFF] ^
+                    lookupTables[6][src[index++] & 0xFF] ^
+                    lookupTables[5][src[index++] & 0xFF] ^
+                    lookupTables[4][src[index++] & 0xFF] ^
+                    lookupTables[3][src[index++] & 0xFF] ^
+                    lookupTables[2][src[index++] & 0xFF] ^
+                    lookupTables[1][src[index++] & 0xFF] ^
+                    lookupTables[0][src[index++] & 0xFF];
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = updateByteUnreflected(lookupTables, localCrc, src[index++]);
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateReflected(char[][] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 15) {
+            long word0 = src.getLong(index);
+            long word1 = src.getLong(index + 8);
+            if (!littleEndian) {
+                word0 = Long.reverseBytes(word0);
+                word1 = Long.reverseBytes(word1);
+            }
+            word0 ^= localCrc;
+            localCrc = lookupTables[15][(int) word0 & 0xFF] ^
+                    lookupTables[14][(int) (word0 >>> 8) & 0xFF] ^
+                    lookupTables[13][(int) (word0 >>> 16) & 0xFF] ^
+                    lookupTables[12][(int) (word0 >>> 24) & 0xFF] ^
+                    lookupTables[11][(int) (word0 >>> 32) & 0xFF] ^
+                    lookupTables[10][(int) (word0 >>> 40) & 0xFF] ^
+                    lookupTables[9][(int) (word0 >>> 48) & 0xFF] ^
+                    lookupTables[8][(int) (word0 >>> 56) & 0xFF] ^
+                    lookupTables[7][(int) word1 & 0xFF] ^
+                    lookupTables[6][(int) (word1 >>> 8) & 0xFF] ^
+                    lookupTables[5][(int) (word1 >>> 16) & 0xFF] ^
+                    lookupTables[4][(int) (word1 >>> 24) & 0xFF] ^
+                    lookupTables[3][(int) (word1 >>> 32) & 0xFF] ^
+                    lookupTables[2][(int) (word1 >>> 40) & 0xFF] ^
+                    lookupTables[1][(int) (word1 >>> 48) & 0xFF] ^
+                    lookupTables[0][(int) (word1 >>> 56) & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = updateByteReflected(lookupTables, localCrc, src.get(index++));
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateUnreflected(char[][] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 15) {
+            long word0 = src.getLong(index);
+            long word1 = src.getLong(index + 8);
+            if (!bigEndian) {
+                word0 = Long.reverseBytes(word0);
+                word1 = Long.reverseBytes(word1);
+            }
+            word0 ^= (long) localCrc << 48;
+            localCrc = lookupTables[15][(int) (word0 >>> 56) & 0xFF] ^
+                    lookupTables[14][(int) (word0 >>> 48) & 0xFF] ^
+                    lookupTables[13][(int) (word0 >>> 40) & 0xFF] ^
+                    lookupTables[12][(int) (word0 >>> 32) & 0xFF] ^
+                    lookupTables[11][(int) (word0 >>> 24) & 0xFF] ^
+                    lookupTables[10][(int) (word0 >>> 16) & 0xFF] ^
+                    lookupTables[9][(int) (word0 >>> 8) & 0xFF] ^
+                    lookupTables[8][(int) word0 & 0xFF] ^
+                    lookupTables[7][(int) (word1 >>> 56) & 0xFF] ^
+                    lookupTables[6][(int) (word1 >>> 48) & 0xFF] ^
+                    lookupTables[5][(int) (word1 >>> 40) & 0xFF] ^
+                    lookupTables[4][(int) (word1 >>> 32) & 0xFF] ^
+                    lookupTables[3][(int) (word1 >>> 24) & 0xFF] ^
+                    lookupTables[2][(int) (word1 >>> 16) & 0xFF] ^
+                    lookupTables[1][(int) (word1 >>> 8) & 0xFF] ^
+                    lookupTables[0][(int) word1 & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = updateByteUnreflected(lookupTables, localCrc, src.get(index++));
+            len--;
+        }
+        return localCrc;
+    }
+}
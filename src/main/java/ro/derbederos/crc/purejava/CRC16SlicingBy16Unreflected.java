@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Slicing-by-16 CRC implementation for unreflected models ({@code refIn = false}) with width &lt;= 16.
+ * It computes the same values as {@link CRC16SlicingBy16}, but the orientation is fixed when the instance
+ * is created, so the update methods carry no {@code refIn} branch and their loops can be inlined fully
+ * at a monomorphic call site.
+ */
+public final class CRC16SlicingBy16Unreflected extends CRC16SlicingBy16 {
+
+    private final char[] lookupTable; // shared between instances, must not be modified
+
+    public CRC16SlicingBy16Unreflected(CRCModel crcModel) {
+        super(crcModel);
+        if (refIn) {
+            throw new IllegalArgumentException("CRC16SlicingBy16Unreflected: model " + crcModel.getName() +
+                    " is not an unreflected model");
+        }
+        this.lookupTable = lookupTables[0];
+    }
+
+    @Override
+    public void update(int b) {
+        int localCrc = crc;
+        crc = ((localCrc << 8) ^ lookupTable[((localCrc >>> 8) ^ b) & 0xFF]) & 0xFFFF;
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        crc = updateUnreflected(lookupTables, crc, src, offset, len);
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * CRC implementation for the reflected models of width 32 whose polynomial is computed by a JDK intrinsic,
+ * {@link java.util.zip.CRC32} or {@code java.util.zip.CRC32C}, but with a different init or xorOut.
+ * The intrinsic runs from its own start value, (0xFFFFFFFF), and the register of the model is obtained
+ * by changing the start value of the data processed since the last reset, (crc ^ (start_new ^ start_old) * x ** (8 * bytes)),
+ * see {@link GfUtil32Reflected#changeStartValue(int, long, int, int)}.
+ */
+public class CRC32Intrinsic extends CRC32 {
+
+    private static final int INTRINSIC_START = 0xFFFFFFFF;
+
+    private final Checksum intrinsic;
+    GfUtil32Reflected startValueChange; // built on first use, see register()
+    private int start; // register when the intrinsic was reset
+    private long length; // bytes processed by the intrinsic since then
+
+    /**
+     * @param crcModel  a reflected model of width 32
+     * @param intrinsic factory of the JDK checksum for the same polynomial, init 0xFFFFFFFF and xorOut 0xFFFFFFFF
+     */
+    public CRC32Intrinsic(CRCModel crcModel, Supplier<? extends Checksum> intrinsic) {
+        super(crcModel);
+        if (width != 32 || !refIn || !refOut) {
+            throw new IllegalArgumentException("CRC32Intrinsic: model " + crcModel.getName() + " is not a reflected 32 bits model");
+        }
+        this.intrinsic = intrinsic.get();
+        restart(init);
+    }
+
+    private void restart(int register) {
+        if (intrinsic != null) {
+            intrinsic.reset();
+        }
+        start = register;
+        length = 0;
+    }
+
+    private int register() {
+        int register = ~(int) intrinsic.getValue();
+        if (start == INTRINSIC_START) {
+            return register;
+        }
+        GfUtil32Reflected startValueChange = this.startValueChange;
+        if (startValueChange == null) {
+            // only the registers not started from the one of the intrinsic need the tables of the change
+            this.startValueChange = startValueChange = new GfUtil32Reflected(crcModel);
+        }
+        return startValueChange.changeStartValue(register, length, INTRINSIC_START, start);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        restart(init);
+    }
+
+    @Override
+    public void update(int b) {
+        intrinsic.update(b);
+        length++;
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        intrinsic.update(src, offset, len);
+        length += len;
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int len = buffer.remaining();
+        if (intrinsic instanceof java.util.zip.CRC32) {
+            ((java.util.zip.CRC32) intrinsic).update(buffer); // Checksum.update(ByteBuffer) is Java 9 or later
+        } else {
+            intrinsic.update(buffer); // java.util.zip.CRC32C, Java 9 or later
+        }
+        length += len;
+    }
+
+    @Override
+    public void updateShort(short v, ByteOrder order) {
+        updateIntrinsic(order == ByteOrder.BIG_ENDIAN ? Short.reverseBytes(v) : v, 2);
+    }
+
+    @Override
+    public void updateInt(int v, ByteOrder order) {
+        updateIntrinsic(order == ByteOrder.BIG_ENDIAN ? Integer.reverseBytes(v) : v, 4);
+    }
+
+    @Override
+    public void updateLong(long v, ByteOrder order) {
+        updateIntrinsic(order == ByteOrder.BIG_ENDIAN ? Long.reverseBytes(v) : v, 8);
+    }
+
+    private void updateIntrinsic(long value, int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            intrinsic.update((int) value);
+            value >>>= 8;
+        }
+        length += bytes;
+    }
+
+    @Override
+    public void updateBits(long b, int bits) {
+        crc = register();
+        super.updateBits(b, bits);
+        restart(crc);
+    }
+
+    @Override
+    public long getValue() {
+        return toUnsignedLong(register()) ^ crcModel.getXorOut();
+    }
+
+    @Override
+    public void setValue(long crc) {
+        super.setValue(crc);
+        restart(this.crc);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import static ro.derbederos.crc.purejava.LookupTablesCache.getNibbleLookupTables32;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 32 using different models.
+ * It has no 256 entries table, each byte is computed with two tables of 16 entries, one per nibble,
+ * so the tables of a polynomial take 128 bytes instead of the 1 KiB of {@link CRC32}.
+ * It fits the deployments keeping many models alive, where the tables of the slicing engines would not stay in cache.
+ */
+public class CRC32Nibble extends CRC32 {
+
+    private final int[] nibbleLookupTables; // shared between instances, must not be modified
+
+    public CRC32Nibble(CRCModel crcModel) {
+        super(crcModel, 0);
+        this.nibbleLookupTables = getNibbleLookupTables32(width, poly, refIn);
+    }
+
+    @Override
+    protected int updateByteReflected(int crc, int b) {
+        int index = (crc ^ b) & 0xFF;
+        return (crc >>> 8) ^ nibbleLookupTables[index & 0xF] ^ nibbleLookupTables[16 + (index >>> 4)];
+    }
+
+    @Override
+    protected int updateByteUnreflected(int crc, int b) {
+        int index = ((crc >>> 24) ^ b) & 0xFF;
+        return (crc << 8) ^ nibbleLookupTables[index & 0xF] ^ nibbleLookupTables[16 + (index >>> 4)];
+    }
+}
@@ -18,6 +18,10 @@ package ro.derbederos.crc.purejava;
 
 import ro.derbederos.crc.CRCModel;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Byte-wise CRC implementation that can compute CRC with width &lt;= 32 using different models.
  * It uses slicing-by-16 method (16 tables of 256 elements each).
@@ -40,6 +44,18 @@ public class CRC32SlicingBy16 extends CRC32 {
         }
     }
 
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (refIn) {
+            crc = updateReflected(lookupTables, crc, buffer, position, limit - position);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
     private static int updateReflected(int[][] lookupTables, int crc, byte[] src, int offset, int len) {
         int localCrc = crc;
         int index = offset;
@@ -97,4 +113,86 @@ public class CRC32SlicingBy16 extends CRC32 {
         }
         return localCrc;
     }
+
+    static int updateReflected(int[][] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 15) {
+            long word1 = src.getLong(index);
+            long word2 = src.getLong(index + 8);
+            if (!littleEndian) {
+                word1 = Long.reverseBytes(word1);
+                word2 = Long.reverseBytes(word2);
+            }
+            int w0 = (int) word1 ^ localCrc;
+            int w1 = (int) (word1 >>> 32);
+            int w2 = (int) word2;
+            int w3 = (int) (word2 >>> 32);
+            localCrc = lookupTables[15][w0 & 0xFF] ^
+                    lookupTables[14][(w0 >>> 8) & 0xFF] ^
+                    lookupTables[13][(w0 >>> 16) & 0xFF] ^
+                    lookupTables[12][w0 >>> 24] ^
+                    lookupTables[11][w1 & 0xFF] ^
+                    lookupTables[10][(w1 >>> 8) & 0xFF] ^
+                    lookupTables[9][(w1 >>> 16) & 0xFF] ^
+                    lookupTables[8][w1 >>> 24] ^
+                    lookupTables[7][w2 & 0xFF] ^
+                    lookupTables[6][(w2 >>> 8) & 0xFF] ^
+                    lookupTables[5][(w2 >>> 16) & 0xFF] ^
+                    lookupTables[4][w2 >>> 24] ^
+                    lookupTables[3][w3 & 0xFF] ^
+                    lookupTables[2][(w3 >>> 8) & 0xFF] ^
+                    lookupTables[1][(w3 >>> 16) & 0xFF] ^
+                    lookupTables[0][w3 >>> 24];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[0][(localCrc ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateUnreflected(int[][] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 15) {
+            long word1 = src.getLong(index);
+            long word2 = src.getLong(index + 8);
+            if (!bigEndian) {
+                word1 = Long.reverseBytes(word1);
+                word2 = Long.reverseBytes(word2);
+            }
+            int w0 = (int) (word1 >>> 32) ^ localCrc;
+            int w1 = (int) word1;
+            int w2 = (int) (word2 >>> 32);
+            int w3 = (int) word2;
+            localCrc = lookupTables[15][w0 >>> 24] ^
+                    lookupTables[14][(w0 >>> 16) & 0xFF] ^
+                    lookupTables[13][(w0 >>> 8) & 0xFF] ^
+                    lookupTables[12][w0 & 0xFF] ^
+                    lookupTables[11][w1 >>> 24] ^
+                    lookupTables[10][(w1 >>> 16) & 0xFF] ^
+                    lookupTables[9][(w1 >>> 8) & 0xFF] ^
+                    lookupTables[8][w1 & 0xFF] ^
+                    lookupTables[7][w2 >>> 24] ^
+                    lookupTables[6][(w2 >>> 16) & 0xFF] ^
+                    lookupTables[5][(w2 >>> 8) & 0xFF] ^
+                    lookupTables[4][w2 & 0xFF] ^
+                    lookupTables[3][w3 >>> 24] ^
+                    lookupTables[2][(w3 >>> 16) & 0xFF] ^
+                    lookupTables[1][(w3 >>> 8) & 0xFF] ^
+                    lookupTables[0][w3 & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[0][((localCrc >>> 24) ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
 }
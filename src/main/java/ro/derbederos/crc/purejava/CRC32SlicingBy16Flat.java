@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.lang.Integer.toUnsignedLong;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_BIG_ENDIAN;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_LITTLE_ENDIAN;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 32 using different models.
+ * It uses slicing-by-16 method, with the 16 tables of 256 elements stored one after another in a single array
+ * (table {@code k} starts at index {@code k << 8}). Every lookup loads from the same array, at indices that
+ * differ only by a constant offset, instead of loading and null checking a row array first.
+ * The input is read a 64-bit word at a time, like in {@link CRC32SlicingBy16VarHandle}.
+ * The byte-wise steps and {@link #updateLong(long, ByteOrder)} are the ones of {@link CRC32SlicingBy8Flat}.
+ */
+public class CRC32SlicingBy16Flat extends CRC32SlicingBy8Flat {
+
+    public CRC32SlicingBy16Flat(CRCModel crcModel) {
+        super(crcModel, 16);
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (refIn) {
+            crc = updateReflected(flatLookupTables, crc, src, offset, len);
+        } else {
+            crc = updateUnreflected(flatLookupTables, crc, src, offset, len);
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else if (refIn) {
+            crc = updateReflected(flatLookupTables, crc, buffer, position, limit - position);
+        } else {
+            crc = updateUnreflected(flatLookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    @Override
+    public void update(long[] src, int offset, int len, ByteOrder order) {
+        if (offset < 0 || len < 0 || offset > src.length - len) {
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", len " + len + ", length " + src.length);
+        }
+        // slicing-by-16 on pairs of values, like update(byte[]) on their bytes
+        int[] t = flatLookupTables;
+        boolean swap = order != (refIn ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int localCrc = crc;
+        int end = offset + len;
+        int i = offset;
+        if (refIn) {
+            for (; i < end - 1; i += 2) {
+                long word1 = (swap ? Long.reverseBytes(src[i]) : src[i]) ^ toUnsignedLong(localCrc);
+                long word2 = swap ? Long.reverseBytes(src[i + 1]) : src[i + 1];
+                localCrc = t[0xF00 | ((int) word1 & 0xFF)] ^
+                        t[0xE00 | ((int) (word1 >>> 8) & 0xFF)] ^
+                        t[0xD00 | ((int) (word1 >>> 16) & 0xFF)] ^
+                        t[0xC00 | ((int) (word1 >>> 24) & 0xFF)] ^
+                        t[0xB00 | ((int) (word1 >>> 32) & 0xFF)] ^
+                        t[0xA00 | ((int) (word1 >>> 40) & 0xFF)] ^
+                        t[0x900 | ((int) (word1 >>> 48) & 0xFF)] ^
+                        t[0x800 | (int) (word1 >>> 56)] ^
+                        t[0x700 | ((int) word2 & 0xFF)] ^
+                        t[0x600 | ((int) (word2 >>> 8) & 0xFF)] ^
+                        t[0x500 | ((int) (word2 >>> 16) & 0xFF)] ^
+                        t[0x400 | ((int) (word2 >>> 24) & 0xFF)] ^
+                        t[0x300 | ((int) (word2 >>> 32) & 0xFF)] ^
+                        t[0x200 | ((int) (word2 >>> 40) & 0xFF)] ^
+                        t[0x100 | ((int) (word2 >>> 48) & 0xFF)] ^
+                        t[(int) (word2 >>> 56)];
+            }
+        } else {
+            for (; i < end - 1; i += 2) {
+                long word1 = (swap ? Long.reverseBytes(src[i]) : src[i]) ^ (long) localCrc << 32;
+                long word2 = swap ? Long.reverseBytes(src[i + 1]) : src[i + 1];
+                localCrc = t[0xF00 | (int) (word1 >>> 56)] ^
+                        t[0xE00 | ((int) (word1 >>> 48) & 0xFF)] ^
+                        t[0xD00 | ((int) (word1 >>> 40) & 0xFF)] ^
+                        t[0xC00 | ((int) (word1 >>> 32) & 0xFF)] ^
+                        t[0xB00 | ((int) (word1 >>> 24) & 0xFF)] ^
+                        t[0xA00 | ((int) (word1 >>> 16) & 0xFF)] ^
+                        t[0x900 | ((int) (word1 >>> 8) & 0xFF)] ^
+                        t[0x800 | ((int) word1 & 0xFF)] ^
+                        t[0x700 | (int) (word2 >>> 56)] ^
+                        t[0x600 | ((int) (word2 >>> 48) & 0xFF)] ^
+                        t[0x500 | ((int) (word2 >>> 40) & 0xFF)] ^
+                        t[0x400 | ((int) (word2 >>> 32) & 0xFF)] ^
+                        t[0x300 | ((int) (word2 >>> 24) & 0xFF)] ^
+                        t[0x200 | ((int) (word2 >>> 16) & 0xFF)] ^
+                        t[0x100 | ((int) (word2 >>> 8) & 0xFF)] ^
+                        t[(int) word2 & 0xFF];
+            }
+        }
+        crc = localCrc;
+        if (i < end) {
+            updateLong(src[i], order);
+        }
+    }
+
+    static int updateReflected(int[] lookupTables, int crc, byte[] src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            long word1 = (long) LONG_LITTLE_ENDIAN.get(src, index);
+            long word2 = (long) LONG_LITTLE_ENDIAN.get(src, index + 8);
+            int w0 = (int) word1 ^ localCrc;
+            int w1 = (int) (word1 >>> 32);
+            int w2 = (int) word2;
+            int w3 = (int) (word2 >>> 32);
+            localCrc = lookupTables[0xF00 | (w0 & 0xFF)] ^
+                    lookupTables[0xE00 | ((w0 >>> 8) & 0xFF)] ^
+                    lookupTables[0xD00 | ((w0 >>> 16) & 0xFF)] ^
+                    lookupTables[0xC00 | (w0 >>> 24)] ^
+                    lookupTables[0xB00 | (w1 & 0xFF)] ^
+                    lookupTables[0xA00 | ((w1 >>> 8) & 0xFF)] ^
+                    lookupTables[0x900 | ((w1 >>> 16) & 0xFF)] ^
+                    lookupTables[0x800 | (w1 >>> 24)] ^
+                    lookupTables[0x700 | (w2 & 0xFF)] ^
+                    lookupTables[0x600 | ((w2 >>> 8) & 0xFF)] ^
+                    lookupTables[0x500 | ((w2 >>> 16) & 0xFF)] ^
+                    lookupTables[0x400 | (w2 >>> 24)] ^
+                    lookupTables[0x300 | (w3 & 0xFF)] ^
+                    lookupTables[0x200 | ((w3 >>> 8) & 0xFF)] ^
+                    lookupTables[0x100 | ((w3 >>> 16) & 0xFF)] ^
+                    lookupTables[w3 >>> 24];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[(localCrc ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateUnreflected(int[] lookupTables, int crc, byte[] src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            long word1 = (long) LONG_BIG_ENDIAN.get(src, index);
+            long word2 = (long) LONG_BIG_ENDIAN.get(src, index + 8);
+            int w0 = (int) (word1 >>> 32) ^ localCrc;
+            int w1 = (int) word1;
+            int w2 = (int) (word2 >>> 32);
+            int w3 = (int) word2;
+            localCrc = lookupTables[0xF00 | (w0 >>> 24)] ^
+                    lookupTables[0xE00 | ((w0 >>> 16) & 0xFF)] ^
+                    lookupTables[0xD00 | ((w0 >>> 8) & 0xFF)] ^
+                    lookupTables[0xC00 | (w0 & 0xFF)] ^
+                    lookupTables[0xB00 | (w1 >>> 24)] ^
+                    lookupTables[0xA00 | ((w1 >>> 16) & 0xFF)] ^
+                    lookupTables[0x900 | ((w1 >>> 8) & 0xFF)] ^
+                    lookupTables[0x800 | (w1 & 0xFF)] ^
+                    lookupTables[0x700 | (w2 >>> 24)] ^
+                    lookupTables[0x600 | ((w2 >>> 16) & 0xFF)] ^
+                    lookupTables[0x500 | ((w2 >>> 8) & 0xFF)] ^
+                    lookupTables[0x400 | (w2 & 0xFF)] ^
+                    lookupTables[0x300 | (w3 >>> 24)] ^
+                    lookupTables[0x200 | ((w3 >>> 16) & 0xFF)] ^
+                    lookupTables[0x100 | ((w3 >>> 8) & 0xFF)] ^
+                    lookupTables[w3 & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[((localCrc >>> 24) ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateReflected(int[] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 15) {
+            long word1 = src.getLong(index);
+            long word2 = src.getLong(index + 8);
+            if (!littleEndian) {
+                word1 = Long.reverseBytes(word1);
+                word2 = Long.reverseBytes(word2);
+            }
+            int w0 = (int) word1 ^ localCrc;
+            int w1 = (int) (word1 >>> 32);
+            int w2 = (int) word2;
+            int w3 = (int) (word2 >>> 32);
+            localCrc = lookupTables[0xF00 | (w0 & 0xFF)] ^
+                    lookupTables[0xE00 | ((w0 >>> 8) & 0xFF)] ^
+                    lookupTables[0xD00 | ((w0 >>> 16) & 0xFF)] ^
+                    lookupTables[0xC00 | (w0 >>> 24)] ^
+                    lookupTables[0xB00 | (w1 & 0xFF)] ^
+                    lookupTables[0xA00 | ((w1 >>> 8) & 0xFF)] ^
+                    lookupTables[0x900 | ((w1 >>> 16) & 0xFF)] ^
+                    lookupTables[0x800 | (w1 >>> 24)] ^
+                    lookupTables[0x700 | (w2 & 0xFF)] ^
+                    lookupTables[0x600 | ((w2 >>> 8) & 0xFF)] ^
+                    lookupTables[0x500 | ((w2 >>> 16) & 0xFF)] ^
+                    lookupTables[0x400 | (w2 >>> 24)] ^
+                    lookupTables[0x300 | (w3 & 0xFF)] ^
+                    lookupTables[0x200 | ((w3 >>> 8) & 0xFF)] ^
+                    lookupTables[0x100 | ((w3 >>> 16) & 0xFF)] ^
+                    lookupTables[w3 >>> 24];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[(localCrc ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    static int updateUnreflected(int[] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 15) {
+            long word1 = src.getLong(index);
+            long word2 = src.getLong(index + 8);
+            if (!bigEndian) {
+                word1 = Long.reverseBytes(word1);
+                word2 = Long.reverseBytes(word2);
+            }
+            int w0 = (int) (word1 >>> 32) ^ localCrc;
+            int w1 = (int) word1;
+            int w2 = (int) (word2 >>> 32);
+            int w3 = (int) word2;
+            localCrc = lookupTables[0xF00 | (w0 >>> 24)] ^
+                    lookupTables[0xE00 | ((w0 >>> 16) & 0xFF)] ^
+                    lookupTables[0xD00 | ((w0 >>> 8) & 0xFF)] ^
+                    lookupTables[0xC00 | (w0 & 0xFF)] ^
+                    lookupTables[0xB00 | (w1 >>> 24)] ^
+                    lookupTables[0xA00 | ((w1 >>> 16) & 0xFF)] ^
+                    lookupTables[0x900 | ((w1 >>> 8) & 0xFF)] ^
+                    lookupTables[0x800 | (w1 & 0xFF)] ^
+                    lookupTables[0x700 | (w2 >>> 24)] ^
+                    lookupTables[0x600 | ((w2 >>> 16) & 0xFF)] ^
+                    lookupTables[0x500 | ((w2 >>> 8) & 0xFF)] ^
+                    lookupTables[0x400 | (w2 & 0xFF)] ^
+                    lookupTables[0x300 | (w3 >>> 24)] ^
+                    lookupTables[0x200 | ((w3 >>> 16) & 0xFF)] ^
+                    lookupTables[0x100 | ((w3 >>> 8) & 0xFF)] ^
+                    lookupTables[w3 & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[((localCrc >>> 24) ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
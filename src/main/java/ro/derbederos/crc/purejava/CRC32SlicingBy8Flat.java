@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.lang.Integer.toUnsignedLong;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_BIG_ENDIAN;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_LITTLE_ENDIAN;
+import static ro.derbederos.crc.purejava.LookupTablesCache.getFlatLookupTables32;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 32 using different models.
+ * It uses slicing-by-8 method, with the 8 tables of 256 elements stored one after another in a single array
+ * (table {@code k} starts at index {@code k << 8}). Every lookup loads from the same array, at indices that
+ * differ only by a constant offset, instead of loading and null checking a row array first.
+ * The input is read a 64-bit word at a time, like in {@link CRC32SlicingBy8VarHandle}.
+ * The flat array is the only table the engine holds, table 0 is also used for the byte-wise steps.
+ */
+public class CRC32SlicingBy8Flat extends CRC32 {
+
+    final int[] flatLookupTables; // shared between instances, must not be modified
+
+    public CRC32SlicingBy8Flat(CRCModel crcModel) {
+        this(crcModel, 8);
+    }
+
+    CRC32SlicingBy8Flat(CRCModel crcModel, int lookupTablesCount) {
+        super(crcModel, 0);
+        this.flatLookupTables = getFlatLookupTables32(width, poly, refIn, lookupTablesCount);
+    }
+
+    @Override
+    protected int updateByteReflected(int crc, int b) {
+        return (crc >>> 8) ^ flatLookupTables[(crc ^ b) & 0xFF];
+    }
+
+    @Override
+    protected int updateByteUnreflected(int crc, int b) {
+        return (crc << 8) ^ flatLookupTables[((crc >>> 24) ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (refIn) {
+            crc = updateReflected(flatLookupTables, crc, src, offset, len);
+        } else {
+            crc = updateUnreflected(flatLookupTables, crc, src, offset, len);
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else if (refIn) {
+            crc = updateReflected(flatLookupTables, crc, buffer, position, limit - position);
+        } else {
+            crc = updateUnreflected(flatLookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    @Override
+    public void updateLong(long v, ByteOrder order) {
+        if (refIn) {
+            long word = order == ByteOrder.LITTLE_ENDIAN ? v : Long.reverseBytes(v);
+            crc = updateWordReflected(flatLookupTables, crc, word);
+        } else {
+            long word = order == ByteOrder.BIG_ENDIAN ? v : Long.reverseBytes(v);
+            crc = updateWordUnreflected(flatLookupTables, crc, word);
+        }
+    }
+
+    /**
+     * Slicing-by-8 on a whole word, with the first byte in the lowest bits, also used by the subclasses.
+     */
+    static int updateWordReflected(int[] t, int crc, long word) {
+        word ^= toUnsignedLong(crc);
+        return t[0x700 | ((int) word & 0xFF)] ^
+                t[0x600 | ((int) (word >>> 8) & 0xFF)] ^
+                t[0x500 | ((int) (word >>> 16) & 0xFF)] ^
+                t[0x400 | ((int) (word >>> 24) & 0xFF)] ^
+                t[0x300 | ((int) (word >>> 32) & 0xFF)] ^
+                t[0x200 | ((int) (word >>> 40) & 0xFF)] ^
+                t[0x100 | ((int) (word >>> 48) & 0xFF)] ^
+                t[(int) (word >>> 56)];
+    }
+
+    /**
+     * Slicing-by-8 on a whole word, with the first byte in the highest bits, also used by the subclasses.
+     */
+    static int updateWordUnreflected(int[] t, int crc, long word) {
+        word ^= (long) crc << 32;
+        return t[0x700 | (int) (word >>> 56)] ^
+                t[0x600 | ((int) (word >>> 48) & 0xFF)] ^
+                t[0x500 | ((int) (word >>> 40) & 0xFF)] ^
+                t[0x400 | ((int) (word >>> 32) & 0xFF)] ^
+                t[0x300 | ((int) (word >>> 24) & 0xFF)] ^
+                t[0x200 | ((int) (word >>> 16) & 0xFF)] ^
+                t[0x100 | ((int) (word >>> 8) & 0xFF)] ^
+                t[(int) word & 0xFF];
+    }
+
+    private static int updateReflected(int[] lookupTables, int crc, byte[] src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        while (len > 7) {
+            long word = (long) LONG_LITTLE_ENDIAN.get(src, index);
+            int low = (int) word ^ localCrc;
+            int high = (int) (word >>> 32);
+            localCrc = lookupTables[0x700 | (low & 0xFF)] ^
+                    lookupTables[0x600 | ((low >>> 8) & 0xFF)] ^
+                    lookupTables[0x500 | ((low >>> 16) & 0xFF)] ^
+                    lookupTables[0x400 | (low >>> 24)] ^
+                    lookupTables[0x300 | (high & 0xFF)] ^
+                    lookupTables[0x200 | ((high >>> 8) & 0xFF)] ^
+                    lookupTables[0x100 | ((high >>> 16) & 0xFF)] ^
+                    lookupTables[high >>> 24];
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[(localCrc ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static int updateUnreflected(int[] lookupTables, int crc, byte[] src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        while (len > 7) {
+            long word = (long) LONG_BIG_ENDIAN.get(src, index);
+            int high = (int) (word >>> 32) ^ localCrc;
+            int low = (int) word;
+            localCrc = lookupTables[0x700 | (high >>> 24)] ^
+                    lookupTables[0x600 | ((high >>> 16) & 0xFF)] ^
+                    lookupTables[0x500 | ((high >>> 8) & 0xFF)] ^
+                    lookupTables[0x400 | (high & 0xFF)] ^
+                    lookupTables[0x300 | (low >>> 24)] ^
+                    lookupTables[0x200 | ((low >>> 16) & 0xFF)] ^
+                    lookupTables[0x100 | ((low >>> 8) & 0xFF)] ^
+                    lookupTables[low & 0xFF];
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[((localCrc >>> 24) ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static int updateReflected(int[] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            localCrc = updateWordReflected(lookupTables, localCrc, littleEndian ? word : Long.reverseBytes(word));
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[(localCrc ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static int updateUnreflected(int[] lookupTables, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            localCrc = updateWordUnreflected(lookupTables, localCrc, bigEndian ? word : Long.reverseBytes(word));
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[((localCrc >>> 24) ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte-wise CRC implementation for unreflected models ({@code refIn = false}) with width &lt;= 32.
+ * It computes the same values as {@link CRC32}, but the orientation is fixed when the instance
+ * is created, so the update methods carry no {@code refIn} branch and their loops can be inlined fully
+ * at a monomorphic call site.
+ * Direct buffers are read a word at a time, like in {@link CRC32}, and still looked up a byte at a time
+ * in the single table.
+ */
+public final class CRC32Unreflected extends CRC32 {
+
+    private final int[] lookupTable; // shared between instances, must not be modified
+
+    public CRC32Unreflected(CRCModel crcModel) {
+        super(crcModel);
+        if (refIn) {
+            throw new IllegalArgumentException("CRC32Unreflected: model " + crcModel.getName() +
+                    " is not an unreflected model");
+        }
+        this.lookupTable = lookupTables[0];
+    }
+
+    @Override
+    public void update(int b) {
+        int localCrc = crc;
+        crc = (localCrc << 8) ^ lookupTable[((localCrc >>> 24) ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        int[] lookupTable = this.lookupTable;
+        int localCrc = crc;
+        for (int i = offset; i < offset + len; i++) {
+            int b = src[i];
+            localCrc = (localCrc << 8) ^ lookupTable[((localCrc >>> 24) ^ b) & 0xFF];
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            crc = updateDirect(lookupTable, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    private static int updateDirect(int[] lookupTable, int crc, ByteBuffer src, int offset, int len) {
+        int localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            if (!bigEndian) {
+                word = Long.reverseBytes(word);
+            }
+            for (int i = 0; i < 8; i++) {
+                localCrc = (localCrc << 8) ^ lookupTable[((localCrc >>> 24) ^ (int) (word >>> 56)) & 0xFF];
+                word <<= 8;
+            }
+            index += 8;
+            len -= 8;
+        }
+        if (len > 3) {
+            int word = src.getInt(index);
+            if (!bigEndian) {
+                word = Integer.reverseBytes(word);
+            }
+            for (int i = 0; i < 4; i++) {
+                localCrc = (localCrc << 8) ^ lookupTable[((localCrc >>> 24) ^ (word >>> 24)) & 0xFF];
+                word <<= 8;
+            }
+            index += 4;
+            len -= 4;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTable[((localCrc >>> 24) ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
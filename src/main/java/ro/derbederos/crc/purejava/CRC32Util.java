@@ -118,4 +118,49 @@ final class CRC32Util {
         }
         return lookupTables;
     }
+
+    /**
+     * Narrows the tables of a polynomial of width &lt;= 16 aligned to the 32 bit register to the 16 bit register.
+     * Unreflected tables keep the polynomial in the upper half of the entries, reflected tables in the lower half.
+     */
+    static char[][] narrowLookupTables16(int[][] lookupTables, boolean refIn) {
+        int shift = refIn ? 0 : 16;
+        char[][] narrowLookupTables = new char[lookupTables.length][0x100];
+        for (int k = 0; k < lookupTables.length; k++) {
+            for (int n = 0; n < 0x100; n++) {
+                narrowLookupTables[k][n] = (char) (lookupTables[k][n] >>> shift);
+            }
+        }
+        return narrowLookupTables;
+    }
+
+    /**
+     * Narrows the tables of a polynomial of width &lt;= 8 aligned to the 32 bit register to the 8 bit register.
+     * Unreflected tables keep the polynomial in the upper byte of the entries, reflected tables in the lower byte.
+     */
+    static byte[][] narrowLookupTables8(int[][] lookupTables, boolean refIn) {
+        int shift = refIn ? 0 : 24;
+        byte[][] narrowLookupTables = new byte[lookupTables.length][0x100];
+        for (int k = 0; k < lookupTables.length; k++) {
+            for (int n = 0; n < 0x100; n++) {
+                narrowLookupTables[k][n] = (byte) (lookupTables[k][n] >>> shift);
+            }
+        }
+        return narrowLookupTables;
+    }
+
+    /**
+     * Returns the two 16 entries tables of a byte step, the low nibble of the byte in [0, 16)
+     * and the high nibble in [16, 32). The entries are the ones of the 256 entries table at
+     * {@code n} and {@code n << 4}, whose xor is the entry of the whole byte.
+     */
+    static int[] initNibbleLookupTables(int poly, boolean refIn) {
+        int[] lookupTable = refIn ? initLookupTableReflected(poly) : initLookupTableUnreflected(poly);
+        int[] nibbleLookupTables = new int[32];
+        for (int n = 0; n < 16; n++) {
+            nibbleLookupTables[n] = lookupTable[n];
+            nibbleLookupTables[16 + n] = lookupTable[n << 4];
+        }
+        return nibbleLookupTables;
+    }
 }
@@ -19,9 +19,14 @@ package ro.derbederos.crc.purejava;
 import ro.derbederos.crc.CRC;
 import ro.derbederos.crc.CRCModel;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
 import static java.lang.Long.reverse;
-import static ro.derbederos.crc.purejava.CRC64Util.initLookupTablesReflected;
-import static ro.derbederos.crc.purejava.CRC64Util.initLookupTablesUnreflected;
+import static ro.derbederos.crc.purejava.LookupTablesCache.getLookupTables64;
 
 /**
  * Byte-wise CRC implementation that can compute CRC with width &lt;= 64 using different models.
@@ -31,8 +36,8 @@ import static ro.derbederos.crc.purejava.CRC64Util.initLookupTablesUnreflected;
 public class CRC64 implements CRC {
 
     protected final CRCModel crcModel;
-    protected final GfUtil gfUtil;
-    protected final long[][] lookupTables;
+    volatile GfUtil gfUtil; // built on first use, see gfUtil()
+    protected final long[][] lookupTables; // shared between instances, must not be modified
     protected final int width;
     protected final long poly;
     protected final long init;
@@ -51,19 +56,14 @@ public class CRC64 implements CRC {
         this.refOut = crcModel.getRefOut();
         long poly = crcModel.getPoly() << 64 - width;
         long init = crcModel.getInit() << 64 - width;
-        GfUtil gfUtil = new GfUtil64Reflected(crcModel);
-        if (!refOut) {
-            gfUtil = new GfUtilUnreflected(gfUtil, width);
-        }
-        this.gfUtil = gfUtil;
         if (this.refIn) {
             this.poly = reverse(poly);
             this.init = reverse(init);
-            this.lookupTables = initLookupTablesReflected(this.poly, lookupTablesCount);
+            this.lookupTables = getLookupTables64(width, this.poly, true, lookupTablesCount);
         } else {
             this.poly = poly;
             this.init = init;
-            this.lookupTables = initLookupTablesUnreflected(this.poly, lookupTablesCount);
+            this.lookupTables = getLookupTables64(width, this.poly, false, lookupTablesCount);
         }
         reset();
     }
@@ -120,25 +120,247 @@ public class CRC64 implements CRC {
         return localCrc;
     }
 
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (refIn) {
+            crc = updateReflected(crc, buffer, position, limit - position);
+        } else {
+            crc = updateUnreflected(crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    private long updateReflected(long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            if (!littleEndian) {
+                word = Long.reverseBytes(word);
+            }
+            for (int i = 0; i < 8; i++) {
+                localCrc = updateByteReflected(localCrc, (int) word & 0xFF);
+                word >>>= 8;
+            }
+            index += 8;
+            len -= 8;
+        }
+        if (len > 3) {
+            int word = src.getInt(index);
+            if (!littleEndian) {
+                word = Integer.reverseBytes(word);
+            }
+            for (int i = 0; i < 4; i++) {
+                localCrc = updateByteReflected(localCrc, word & 0xFF);
+                word >>>= 8;
+            }
+            index += 4;
+            len -= 4;
+        }
+        while (len > 0) {
+            localCrc = updateByteReflected(localCrc, src.get(index++) & 0xFF);
+            len--;
+        }
+        return localCrc;
+    }
+
+    private long updateUnreflected(long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            if (!bigEndian) {
+                word = Long.reverseBytes(word);
+            }
+            for (int i = 0; i < 8; i++) {
+                localCrc = updateByteUnreflected(localCrc, (int) (word >>> 56));
+                word <<= 8;
+            }
+            index += 8;
+            len -= 8;
+        }
+        if (len > 3) {
+            int word = src.getInt(index);
+            if (!bigEndian) {
+                word = Integer.reverseBytes(word);
+            }
+            for (int i = 0; i < 4; i++) {
+                localCrc = updateByteUnreflected(localCrc, word >>> 24);
+                word <<= 8;
+            }
+            index += 4;
+            len -= 4;
+        }
+        while (len > 0) {
+            localCrc = updateByteUnreflected(localCrc, src.get(index++) & 0xFF);
+            len--;
+        }
+        return localCrc;
+    }
+
     @Override
     public void updateBits(long b, int bits) {
+        // whole bytes go through the lookup table, only the remaining bits are computed one by one
+        long localCrc = crc;
         if (refIn) {
-            long mask = 0xFFFFFFFFFFFFFFFFL >>> 64 - bits;
-            crc ^= b & mask;
+            for (; bits > 7; bits -= 8) {
+                localCrc = updateByteReflected(localCrc, (int) b & 0xFF);
+                b >>>= 8;
+            }
+            localCrc ^= b & ((1L << bits) - 1);
             for (int i = 0; i < bits; i++) {
-                crc = (crc >>> 1) ^ (poly & -(crc & 1));
+                localCrc = (localCrc >>> 1) ^ (poly & -(localCrc & 1));
             }
         } else {
-            crc ^= b << 64 - bits;
+            for (; bits > 7; bits -= 8) {
+                localCrc = updateByteUnreflected(localCrc, (int) (b >>> bits - 8) & 0xFF);
+            }
+            localCrc ^= (b & ((1L << bits) - 1)) << 64 - bits;
             for (int i = 0; i < bits; i++) {
-                crc = (crc << 1) ^ (poly & -(crc >>> 63));
+                localCrc = (localCrc << 1) ^ (poly & -(localCrc >>> 63));
+            }
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public void updateShort(short v, ByteOrder order) {
+        updateValue(order == ByteOrder.BIG_ENDIAN ? Short.reverseBytes(v) : v, 2);
+    }
+
+    @Override
+    public void updateInt(int v, ByteOrder order) {
+        updateValue(order == ByteOrder.BIG_ENDIAN ? Integer.reverseBytes(v) : v, 4);
+    }
+
+    @Override
+    public void updateLong(long v, ByteOrder order) {
+        if (lookupTables.length < 8) {
+            updateValue(order == ByteOrder.BIG_ENDIAN ? Long.reverseBytes(v) : v, 8);
+        } else if (refIn) {
+            // slicing-by-8 on the whole value, with the first byte in the lowest bits
+            long word = order == ByteOrder.LITTLE_ENDIAN ? v : Long.reverseBytes(v);
+            word ^= crc;
+            crc = lookupTables[7][(int) word & 0xFF] ^
+                    lookupTables[6][(int) (word >>> 8) & 0xFF] ^
+                    lookupTables[5][(int) (word >>> 16) & 0xFF] ^
+                    lookupTables[4][(int) (word >>> 24) & 0xFF] ^
+                    lookupTables[3][(int) (word >>> 32) & 0xFF] ^
+                    lookupTables[2][(int) (word >>> 40) & 0xFF] ^
+                    lookupTables[1][(int) (word >>> 48) & 0xFF] ^
+                    lookupTables[0][(int) (word >>> 56)];
+        } else {
+            // slicing-by-8 on the whole value, with the first byte in the highest bits
+            long word = order == ByteOrder.BIG_ENDIAN ? v : Long.reverseBytes(v);
+            word ^= crc;
+            crc = lookupTables[7][(int) (word >>> 56)] ^
+                    lookupTables[6][(int) (word >>> 48) & 0xFF] ^
+                    lookupTables[5][(int) (word >>> 40) & 0xFF] ^
+                    lookupTables[4][(int) (word >>> 32) & 0xFF] ^
+                    lookupTables[3][(int) (word >>> 24) & 0xFF] ^
+                    lookupTables[2][(int) (word >>> 16) & 0xFF] ^
+                    lookupTables[1][(int) (word >>> 8) & 0xFF] ^
+                    lookupTables[0][(int) word & 0xFF];
+        }
+    }
+
+    @Override
+    public void update(long[] src, int offset, int len, ByteOrder order) {
+        if (lookupTables.length < 16) {
+            CRC.super.update(src, offset, len, order);
+            return;
+        }
+        if (offset < 0 || len < 0 || offset > src.length - len) {
+            throw new ArrayIndexOutOfBoundsException("offset " + offset + ", len " + len + ", length " + src.length);
+        }
+        // slicing-by-16 on pairs of values, like update(byte[]) of CRC64SlicingBy16 on their bytes
+        long[][] t = lookupTables;
+        boolean swap = order != (refIn ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        long localCrc = crc;
+        int end = offset + len;
+        int i = offset;
+        if (refIn) {
+            for (; i < end - 1; i += 2) {
+                long word1 = (swap ? Long.reverseBytes(src[i]) : src[i]) ^ localCrc;
+                long word2 = swap ? Long.reverseBytes(src[i + 1]) : src[i + 1];
+                localCrc = t[15][(int) word1 & 0xFF] ^
+                        t[14][(int) (word1 >>> 8) & 0xFF] ^
+                        t[13][(int) (word1 >>> 16) & 0xFF] ^
+                        t[12][(int) (word1 >>> 24) & 0xFF] ^
+                        t[11][(int) (word1 >>> 32) & 0xFF] ^
+                        t[10][(int) (word1 >>> 40) & 0xFF] ^
+                        t[9][(int) (word1 >>> 48) & 0xFF] ^
+                        t[8][(int) (word1 >>> 56)] ^
+                        t[7][(int) word2 & 0xFF] ^
+                        t[6][(int) (word2 >>> 8) & 0xFF] ^
+                        t[5][(int) (word2 >>> 16) & 0xFF] ^
+                        t[4][(int) (word2 >>> 24) & 0xFF] ^
+                        t[3][(int) (word2 >>> 32) & 0xFF] ^
+                        t[2][(int) (word2 >>> 40) & 0xFF] ^
+                        t[1][(int) (word2 >>> 48) & 0xFF] ^
+                        t[0][(int) (word2 >>> 56)];
+            }
+        } else {
+            for (; i < end - 1; i += 2) {
+                long word1 = (swap ? Long.reverseBytes(src[i]) : src[i]) ^ localCrc;
+                long word2 = swap ? Long.reverseBytes(src[i + 1]) : src[i + 1];
+                localCrc = t[15][(int) (word1 >>> 56)] ^
+                        t[14][(int) (word1 >>> 48) & 0xFF] ^
+                        t[13][(int) (word1 >>> 40) & 0xFF] ^
+                        t[12][(int) (word1 >>> 32) & 0xFF] ^
+                        t[11][(int) (word1 >>> 24) & 0xFF] ^
+                        t[10][(int) (word1 >>> 16) & 0xFF] ^
+                        t[9][(int) (word1 >>> 8) & 0xFF] ^
+                        t[8][(int) word1 & 0xFF] ^
+                        t[7][(int) (word2 >>> 56)] ^
+                        t[6][(int) (word2 >>> 48) & 0xFF] ^
+                        t[5][(int) (word2 >>> 40) & 0xFF] ^
+                        t[4][(int) (word2 >>> 32) & 0xFF] ^
+                        t[3][(int) (word2 >>> 24) & 0xFF] ^
+                        t[2][(int) (word2 >>> 16) & 0xFF] ^
+                        t[1][(int) (word2 >>> 8) & 0xFF] ^
+                        t[0][(int) word2 & 0xFF];
+            }
+        }
+        crc = localCrc;
+        if (i < end) {
+            updateLong(src[i], order);
+        }
+    }
+
+    /**
+     * Updates the register with the lowest {@code bytes} bytes of {@code value}, the least significant one first.
+     */
+    private void updateValue(long value, int bytes) {
+        long localCrc = crc;
+        if (refIn) {
+            for (int i = 0; i < bytes; i++) {
+                localCrc = updateByteReflected(localCrc, (int) value & 0xFF);
+                value >>>= 8;
+            }
+        } else {
+            for (int i = 0; i < bytes; i++) {
+                localCrc = updateByteUnreflected(localCrc, (int) value & 0xFF);
+                value >>>= 8;
             }
         }
+        crc = localCrc;
     }
 
     @Override
     public long getValue() {
-        long result = crc;
+        return toValue(crc);
+    }
+
+    /**
+     * Returns the CRC value of the given register.
+     */
+    long toValue(long register) {
+        long result = register;
         //reflect output when necessary
         if (refOut != refIn) {
             result = reverse(result);
@@ -152,6 +374,13 @@ public class CRC64 implements CRC {
 
     @Override
     public void setValue(long crc) {
+        this.crc = toRegister(crc);
+    }
+
+    /**
+     * Returns the register having the given CRC value.
+     */
+    long toRegister(long crc) {
         long result = crc ^ crcModel.getXorOut();
         if (!refOut) {
             result <<= 64 - width;
@@ -160,21 +389,59 @@ public class CRC64 implements CRC {
         if (refOut != refIn) {
             result = reverse(result);
         }
-        this.crc = result;
+        return result;
+    }
+
+    /**
+     * Returns the GF(2) state of the polynomial. It is built on the first call, engines that never combine CRCs
+     * do not hold its (x ** n mod P) window tables.
+     */
+    GfUtil gfUtil() {
+        GfUtil gfUtil = this.gfUtil;
+        if (gfUtil == null) {
+            // two threads may build it, the instances are equivalent
+            gfUtil = refOut ? new GfUtil64Reflected(crcModel) : new GfUtil64Unreflected(crcModel);
+            this.gfUtil = gfUtil;
+        }
+        return gfUtil;
     }
 
     @Override
     public long getCrcOfCrc() {
-        return gfUtil.getCrcOfCrc() ^ crcModel.getXorOut();
+        return gfUtil().getCrcOfCrc() ^ crcModel.getXorOut();
     }
 
     @Override
     public long concatenate(long crcA, long crcB, long bytesB) {
-        return gfUtil.concatenate(crcA, crcB, bytesB);
+        return gfUtil().concatenate(crcA, crcB, bytesB);
+    }
+
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytesB) {
+        return gfUtil().concatenateOperator(bytesB);
     }
 
     @Override
     public long concatenateZeroes(long crcA, long bytesB) {
-        return gfUtil.crcOfZeroes(bytesB, crcA);
+        return gfUtil().crcOfZeroes(bytesB, crcA);
+    }
+
+    @Override
+    public LongUnaryOperator concatenateZeroesOperator(long bytesB) {
+        return gfUtil().crcOfZeroesOperator(bytesB);
+    }
+
+    /**
+     * Returns (x ** n mod G) in the representation of the register, reflected when refIn is true,
+     * where G is the generating polynomial aligned to the register, (P * x ** (64 - width)).
+     * Used for the folding constants of the carry-less multiplication engines. Requires n &gt;= 64 - width.
+     */
+    protected long registerXpowN(long n) {
+        long shift = 64 - width;
+        if (refIn) {
+            return new GfUtil64Reflected(crcModel).XpowN(n - shift);
+        } else {
+            return new GfUtil64Unreflected(crcModel).XpowNInternal(n - shift);
+        }
     }
 }
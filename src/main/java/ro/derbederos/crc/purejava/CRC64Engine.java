@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCEngine;
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Stateless engine with width &lt;= 64 using the slicing-by-16 tables of {@link CRC64SlicingBy16},
+ * the state being the register of the CRC.
+ */
+public class CRC64Engine implements CRCEngine {
+
+    private final CRC64SlicingBy16 crc; // tables and conversions of the model, its register is never used
+    private final long[][] lookupTables; // shared between instances, must not be modified
+    private final boolean refIn;
+
+    public CRC64Engine(CRCModel crcModel) {
+        this.crc = new CRC64SlicingBy16(crcModel);
+        this.lookupTables = crc.lookupTables;
+        this.refIn = crc.refIn;
+    }
+
+    @Override
+    public CRCModel getCRCModel() {
+        return crc.crcModel;
+    }
+
+    @Override
+    public long init() {
+        return crc.init;
+    }
+
+    @Override
+    public long update(long state, int b) {
+        if (refIn) {
+            return crc.updateByteReflected(state, b & 0xFF);
+        } else {
+            return crc.updateByteUnreflected(state, b & 0xFF);
+        }
+    }
+
+    @Override
+    public long update(long state, byte[] b, int off, int len) {
+        if (refIn) {
+            return CRC64SlicingBy16.updateReflected(lookupTables, state, b, off, len);
+        } else {
+            return CRC64SlicingBy16.updateUnreflected(lookupTables, state, b, off, len);
+        }
+    }
+
+    @Override
+    public long update(long state, ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (refIn) {
+            state = CRC64SlicingBy16.updateReflected(lookupTables, state, buffer, position, limit - position);
+        } else {
+            state = CRC64SlicingBy16.updateUnreflected(lookupTables, state, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+        return state;
+    }
+
+    @Override
+    public long finish(long state) {
+        return crc.toValue(state);
+    }
+
+    @Override
+    public long resume(long crc) {
+        return this.crc.toRegister(crc);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCEngine;
+import ro.derbederos.crc.CRCModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Defines for each model a hidden class from the bytes of {@link CRC64SpecializedEngine}, with the parameters
+ * and the tables of the model as class data, see {@code MethodHandles.Lookup.defineHiddenClassWithClassData}.
+ * Requires java 16 or newer. The methods are looked up reflectively, the library being compiled for older releases.
+ * The hidden classes are not strongly bound to the class loader, they are unloaded with their engine.
+ */
+public final class CRC64EngineSpecializer {
+
+    private static final String TEMPLATE_RESOURCE = "CRC64SpecializedEngine.class";
+
+    private static final Method defineHiddenClassWithClassData;
+    private static final Method classData;
+    private static final Object noClassOptions;
+    private static final byte[] template;
+
+    static {
+        Method define = null;
+        Method data = null;
+        Object options = null;
+        byte[] bytes = null;
+        try {
+            Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            define = MethodHandles.Lookup.class.getMethod("defineHiddenClassWithClassData",
+                    byte[].class, Object.class, boolean.class, Array.newInstance(classOption, 0).getClass());
+            data = MethodHandles.class.getMethod("classData", MethodHandles.Lookup.class, String.class, Class.class);
+            options = Array.newInstance(classOption, 0);
+            bytes = readTemplate();
+        } catch (ReflectiveOperationException | IOException ignore) {
+        }
+        defineHiddenClassWithClassData = define;
+        classData = data;
+        noClassOptions = options;
+        template = bytes;
+    }
+
+    private CRC64EngineSpecializer() {
+    }
+
+    private static byte[] readTemplate() throws IOException {
+        try (InputStream in = CRC64EngineSpecializer.class.getResourceAsStream(TEMPLATE_RESOURCE)) {
+            if (in == null) {
+                return null;
+            }
+            // not InputStream.readAllBytes(), Java 9 or later, the library is compiled against Java 8
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[4096];
+            for (int n; (n = in.read(chunk)) > 0; ) {
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Returns true when the runtime supports hidden classes with class data.
+     */
+    public static boolean isSupported() {
+        return template != null;
+    }
+
+    /**
+     * Returns a new engine specialized for the model, width &lt;= 64, defined in its own hidden class.
+     */
+    public static CRCEngine specialize(CRCModel crcModel) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("CRC64EngineSpecializer: hidden classes are not supported");
+        }
+        CRC64SlicingBy16 crc = new CRC64SlicingBy16(crcModel);
+        Object[] data = {crcModel, crc.init, crc.lookupTables};
+        try {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup) defineHiddenClassWithClassData.invoke(
+                    MethodHandles.lookup(), template, data, true, noClassOptions);
+            return (CRCEngine) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException("CRC64EngineSpecializer: cannot define the engine of " + crcModel.getName(),
+                    ex.getCause());
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("CRC64EngineSpecializer: cannot define the engine of " + crcModel.getName(), ex);
+        }
+    }
+
+    /**
+     * Returns the class data of a specialized engine, called from its static initializer with its own lookup.
+     */
+    static Object[] classData(MethodHandles.Lookup lookup) {
+        try {
+            return (Object[]) classData.invoke(null, lookup, "_", Object[].class);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("CRC64EngineSpecializer: no class data for " + lookup.lookupClass(), ex);
+        }
+    }
+}
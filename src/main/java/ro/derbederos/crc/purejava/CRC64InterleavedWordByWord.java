@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.util.Arrays;
+
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_BIG_ENDIAN;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_LITTLE_ENDIAN;
+import static ro.derbederos.crc.purejava.LookupTablesCache.getLookupTables64;
+
+/**
+ * Word-wise CRC implementation that can compute CRC with width &lt;= 64 using different models.
+ * It is a port of the interleaved word by word algorithm described by Andrew Kadatch and Bob Jenkins
+ * in "Everything we know about CRC but afraid to forget", 2010 (crcutil library).
+ * <p>
+ * The input is split in blocks of {@value #STRIPES} words of 8 bytes each. Word {@code i} of every block
+ * is accumulated into its own CRC register, using tables that account for the
+ * {@code (STRIPES - 1) * 8} bytes that separate it from word {@code i} of the next block. The registers
+ * are independent, so an out-of-order core can overlap their table loads. The registers are merged
+ * when the last block is processed with the slicing-by-8 tables.
+ */
+public class CRC64InterleavedWordByWord extends CRC64SlicingBy8 {
+
+    private static final int STRIPES = 4;
+    private static final int BLOCK_SIZE = STRIPES * Long.BYTES;
+
+    private final long[][] stripeTables;
+
+    public CRC64InterleavedWordByWord(CRCModel crcModel) {
+        super(crcModel);
+        long[][] lookupTables = getLookupTables64(width, poly, refIn, BLOCK_SIZE);
+        // byte j of a stripe word is followed by BLOCK_SIZE - 1 - j bytes until the same word of the next block
+        this.stripeTables = Arrays.copyOfRange(lookupTables, BLOCK_SIZE - Long.BYTES, BLOCK_SIZE);
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (refIn) {
+            crc = updateReflected(lookupTables, stripeTables, crc, src, offset, len);
+        } else {
+            crc = updateUnreflected(lookupTables, stripeTables, crc, src, offset, len);
+        }
+    }
+
+    private static long updateReflected(long[][] lookupTables, long[][] stripeTables, long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        if (len >= 2 * BLOCK_SIZE) {
+            long crc0 = localCrc;
+            long crc1 = 0;
+            long crc2 = 0;
+            long crc3 = 0;
+            // keep the last block for merging the stripes
+            while (len >= 2 * BLOCK_SIZE) {
+                crc0 = stepReflected(stripeTables, crc0 ^ (long) LONG_LITTLE_ENDIAN.get(src, index));
+                crc1 = stepReflected(stripeTables, crc1 ^ (long) LONG_LITTLE_ENDIAN.get(src, index + 8));
+                crc2 = stepReflected(stripeTables, crc2 ^ (long) LONG_LITTLE_ENDIAN.get(src, index + 16));
+                crc3 = stepReflected(stripeTables, crc3 ^ (long) LONG_LITTLE_ENDIAN.get(src, index + 24));
+                index += BLOCK_SIZE;
+                len -= BLOCK_SIZE;
+            }
+            localCrc = stepReflected(lookupTables, crc0 ^ (long) LONG_LITTLE_ENDIAN.get(src, index));
+            localCrc = stepReflected(lookupTables, localCrc ^ crc1 ^ (long) LONG_LITTLE_ENDIAN.get(src, index + 8));
+            localCrc = stepReflected(lookupTables, localCrc ^ crc2 ^ (long) LONG_LITTLE_ENDIAN.get(src, index + 16));
+            localCrc = stepReflected(lookupTables, localCrc ^ crc3 ^ (long) LONG_LITTLE_ENDIAN.get(src, index + 24));
+            index += BLOCK_SIZE;
+            len -= BLOCK_SIZE;
+        }
+        while (len > 7) {
+            localCrc = stepReflected(lookupTables, localCrc ^ (long) LONG_LITTLE_ENDIAN.get(src, index));
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[0][((int) localCrc ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long updateUnreflected(long[][] lookupTables, long[][] stripeTables, long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        if (len >= 2 * BLOCK_SIZE) {
+            long crc0 = localCrc;
+            long crc1 = 0;
+            long crc2 = 0;
+            long crc3 = 0;
+            // keep the last block for merging the stripes
+            while (len >= 2 * BLOCK_SIZE) {
+                crc0 = stepUnreflected(stripeTables, crc0 ^ (long) LONG_BIG_ENDIAN.get(src, index));
+                crc1 = stepUnreflected(stripeTables, crc1 ^ (long) LONG_BIG_ENDIAN.get(src, index + 8));
+                crc2 = stepUnreflected(stripeTables, crc2 ^ (long) LONG_BIG_ENDIAN.get(src, index + 16));
+                crc3 = stepUnreflected(stripeTables, crc3 ^ (long) LONG_BIG_ENDIAN.get(src, index + 24));
+                index += BLOCK_SIZE;
+                len -= BLOCK_SIZE;
+            }
+            localCrc = stepUnreflected(lookupTables, crc0 ^ (long) LONG_BIG_ENDIAN.get(src, index));
+            localCrc = stepUnreflected(lookupTables, localCrc ^ crc1 ^ (long) LONG_BIG_ENDIAN.get(src, index + 8));
+            localCrc = stepUnreflected(lookupTables, localCrc ^ crc2 ^ (long) LONG_BIG_ENDIAN.get(src, index + 16));
+            localCrc = stepUnreflected(lookupTables, localCrc ^ crc3 ^ (long) LONG_BIG_ENDIAN.get(src, index + 24));
+            index += BLOCK_SIZE;
+            len -= BLOCK_SIZE;
+        }
+        while (len > 7) {
+            localCrc = stepUnreflected(lookupTables, localCrc ^ (long) LONG_BIG_ENDIAN.get(src, index));
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[0][((int) (localCrc >>> 56) ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long stepReflected(long[][] lookupTables, long word) {
+        int low = (int) word;
+        int high = (int) (word >>> 32);
+        return lookupTables[7][low & 0xFF] ^
+                lookupTables[6][(low >>> 8) & 0xFF] ^
+                lookupTables[5][(low >>> 16) & 0xFF] ^
+                lookupTables[4][low >>> 24] ^
+                lookupTables[3][high & 0xFF] ^
+                lookupTables[2][(high >>> 8) & 0xFF] ^
+                lookupTables[1][(high >>> 16) & 0xFF] ^
+                lookupTables[0][high >>> 24];
+    }
+
+    private static long stepUnreflected(long[][] lookupTables, long word) {
+        int high = (int) (word >>> 32);
+        int low = (int) word;
+        return lookupTables[7][high >>> 24] ^
+                lookupTables[6][(high >>> 16) & 0xFF] ^
+                lookupTables[5][(high >>> 8) & 0xFF] ^
+                lookupTables[4][high & 0xFF] ^
+                lookupTables[3][low >>> 24] ^
+                lookupTables[2][(low >>> 16) & 0xFF] ^
+                lookupTables[1][(low >>> 8) & 0xFF] ^
+                lookupTables[0][low & 0xFF];
+    }
+}
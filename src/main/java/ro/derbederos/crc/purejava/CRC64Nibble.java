@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import static ro.derbederos.crc.purejava.LookupTablesCache.getNibbleLookupTable64;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 64 using different models.
+ * It has no 256 entries table, each byte is computed in two steps of 4 bits with a table of 16 entries,
+ * so the table of a polynomial takes 128 bytes instead of the 2 KiB of {@link CRC64}.
+ * It fits the deployments keeping many models alive, where the tables of the slicing engines would not stay in cache.
+ */
+public class CRC64Nibble extends CRC64 {
+
+    private final long[] nibbleLookupTable; // shared between instances, must not be modified
+
+    public CRC64Nibble(CRCModel crcModel) {
+        super(crcModel, 0);
+        this.nibbleLookupTable = getNibbleLookupTable64(width, poly, refIn);
+    }
+
+    @Override
+    protected long updateByteReflected(long crc, int b) {
+        crc ^= b & 0xFF;
+        crc = (crc >>> 4) ^ nibbleLookupTable[(int) crc & 0xF];
+        return (crc >>> 4) ^ nibbleLookupTable[(int) crc & 0xF];
+    }
+
+    @Override
+    protected long updateByteUnreflected(long crc, int b) {
+        crc ^= (long) (b & 0xFF) << 56;
+        crc = (crc << 4) ^ nibbleLookupTable[(int) (crc >>> 60)];
+        return (crc << 4) ^ nibbleLookupTable[(int) (crc >>> 60)];
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Byte-wise CRC implementation for reflected models ({@code refIn = true}) with width &lt;= 64.
+ * It computes the same values as {@link CRC64}, but the orientation is fixed when the instance
+ * is created, so the update methods carry no {@code refIn} branch and their loops can be inlined fully
+ * at a monomorphic call site.
+ * Direct buffers are read a word at a time, like in {@link CRC64}, and still looked up a byte at a time
+ * in the single table.
+ */
+public final class CRC64Reflected extends CRC64 {
+
+    private final long[] lookupTable; // shared between instances, must not be modified
+
+    public CRC64Reflected(CRCModel crcModel) {
+        super(crcModel);
+        if (!refIn) {
+            throw new IllegalArgumentException("CRC64Reflected: model " + crcModel.getName() +
+                    " is not a reflected model");
+        }
+        this.lookupTable = lookupTables[0];
+    }
+
+    @Override
+    public void update(int b) {
+        long localCrc = crc;
+        crc = (localCrc >>> 8) ^ lookupTable[((int) localCrc ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        long[] lookupTable = this.lookupTable;
+        long localCrc = crc;
+        for (int i = offset; i < offset + len; i++) {
+            int b = src[i];
+            localCrc = (localCrc >>> 8) ^ lookupTable[((int) localCrc ^ b) & 0xFF];
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            crc = updateDirect(lookupTable, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    private static long updateDirect(long[] lookupTable, long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            if (!littleEndian) {
+                word = Long.reverseBytes(word);
+            }
+            for (int i = 0; i < 8; i++) {
+                localCrc = (localCrc >>> 8) ^ lookupTable[((int) localCrc ^ (int) word) & 0xFF];
+                word >>>= 8;
+            }
+            index += 8;
+            len -= 8;
+        }
+        if (len > 3) {
+            int word = src.getInt(index);
+            if (!littleEndian) {
+                word = Integer.reverseBytes(word);
+            }
+            for (int i = 0; i < 4; i++) {
+                localCrc = (localCrc >>> 8) ^ lookupTable[((int) localCrc ^ word) & 0xFF];
+                word >>>= 8;
+            }
+            index += 4;
+            len -= 4;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTable[((int) localCrc ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Slicing-by-16 CRC implementation for unreflected models ({@code refIn = false}) with width &lt;= 64.
+ * It computes the same values as {@link CRC64SlicingBy16Flat}, but the orientation is fixed when the instance
+ * is created, so the update methods carry no {@code refIn} branch and their loops can be inlined fully
+ * at a monomorphic call site.
+ */
+public final class CRC64SlicingBy16FlatUnreflected extends CRC64SlicingBy16Flat {
+
+    public CRC64SlicingBy16FlatUnreflected(CRCModel crcModel) {
+        super(crcModel);
+        if (refIn) {
+            throw new IllegalArgumentException("CRC64SlicingBy16FlatUnreflected: model " + crcModel.getName() +
+                    " is not an unreflected model");
+        }
+    }
+
+    @Override
+    public void update(int b) {
+        long localCrc = crc;
+        crc = (localCrc << 8) ^ flatLookupTables[((int) (localCrc >>> 56) ^ b) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        crc = updateUnreflected(flatLookupTables, crc, src, offset, len);
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            crc = updateUnreflected(flatLookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_BIG_ENDIAN;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_LITTLE_ENDIAN;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 64 using different models.
+ * It uses slicing-by-16 method (16 tables of 256 elements each), but it reads the input
+ * a 64-bit word at a time through a {@link java.lang.invoke.VarHandle} byte array view
+ * (little-endian for reflected models, big-endian for unreflected ones) and xors the whole word
+ * with the CRC register before splitting it into table indices.
+ */
+public class CRC64SlicingBy16VarHandle extends CRC64SlicingBy16 {
+
+    public CRC64SlicingBy16VarHandle(CRCModel crcModel) {
+        super(crcModel);
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (refIn) {
+            crc = updateReflected(lookupTables, crc, src, offset, len);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, src, offset, len);
+        }
+    }
+
+    static long updateReflected(long[][] lookupTables, long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            long word1 = (long) LONG_LITTLE_ENDIAN.get(src, index);
+            long word2 = (long) LONG_LITTLE_ENDIAN.get(src, index + 8);
+            word1 ^= localCrc;
+            int w0 = (int) word1;
+            int w1 = (int) (word1 >>> 32);
+            int w2 = (int) word2;
+            int w3 = (int) (word2 >>> 32);
+            localCrc = lookupTables[15][w0 & 0xFF] ^
+                    lookupTables[14][(w0 >>> 8) & 0xFF] ^
+                    lookupTables[13][(w0 >>> 16) & 0xFF] ^
+                    lookupTables[12][w0 >>> 24] ^
+                    lookupTables[11][w1 & 0xFF] ^
+                    lookupTables[10][(w1 >>> 8) & 0xFF] ^
+                    lookupTables[9][(w1 >>> 16) & 0xFF] ^
+                    lookupTables[8][w1 >>> 24] ^
+                    lookupTables[7][w2 & 0xFF] ^
+                    lookupTables[6][(w2 >>> 8) & 0xFF] ^
+                    lookupTables[5][(w2 >>> 16) & 0xFF] ^
+                    lookupTables[4][w2 >>> 24] ^
+                    lookupTables[3][w3 & 0xFF] ^
+                    lookupTables[2][(w3 >>> 8) & 0xFF] ^
+                    lookupTables[1][(w3 >>> 16) & 0xFF] ^
+                    lookupTables[0][w3 >>> 24];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[0][((int) localCrc ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    static long updateUnreflected(long[][] lookupTables, long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            long word1 = (long) LONG_BIG_ENDIAN.get(src, index);
+            long word2 = (long) LONG_BIG_ENDIAN.get(src, index + 8);
+            word1 ^= localCrc;
+            int w0 = (int) (word1 >>> 32);
+            int w1 = (int) word1;
+            int w2 = (int) (word2 >>> 32);
+            int w3 = (int) word2;
+            localCrc = lookupTables[15][w0 >>> 24] ^
+                    lookupTables[14][(w0 >>> 16) & 0xFF] ^
+                    lookupTables[13][(w0 >>> 8) & 0xFF] ^
+                    lookupTables[12][w0 & 0xFF] ^
+                    lookupTables[11][w1 >>> 24] ^
+                    lookupTables[10][(w1 >>> 16) & 0xFF] ^
+                    lookupTables[9][(w1 >>> 8) & 0xFF] ^
+                    lookupTables[8][w1 & 0xFF] ^
+                    lookupTables[7][w2 >>> 24] ^
+                    lookupTables[6][(w2 >>> 16) & 0xFF] ^
+                    lookupTables[5][(w2 >>> 8) & 0xFF] ^
+                    lookupTables[4][w2 & 0xFF] ^
+                    lookupTables[3][w3 >>> 24] ^
+                    lookupTables[2][(w3 >>> 16) & 0xFF] ^
+                    lookupTables[1][(w3 >>> 8) & 0xFF] ^
+                    lookupTables[0][w3 & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[0][((int) (localCrc >>> 56) ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
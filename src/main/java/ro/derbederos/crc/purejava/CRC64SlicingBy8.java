@@ -18,6 +18,10 @@ package ro.derbederos.crc.purejava;
 
 import ro.derbederos.crc.CRCModel;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Byte-wise CRC implementation that can compute CRC with width &lt;= 64 using different models.
  * It uses slicing-by-8 method (8 tables of 256 elements each).
@@ -40,6 +44,18 @@ public class CRC64SlicingBy8 extends CRC64 {
         }
     }
 
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (refIn) {
+            crc = updateReflected(lookupTables, crc, buffer, position, limit - position);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
     private static long updateReflected(long[][] lookupTables, long crc, byte[] src, int offset, int len) {
         long localCrc = crc;
         int index = offset;
@@ -85,4 +101,64 @@ public class CRC64SlicingBy8 extends CRC64 {
         }
         return localCrc;
     }
+
+    private static long updateReflected(long[][] lookupTables, long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            if (!littleEndian) {
+                word = Long.reverseBytes(word);
+            }
+            word ^= localCrc;
+            int low = (int) word;
+            int high = (int) (word >>> 32);
+            localCrc = lookupTables[7][low & 0xFF] ^
+                    lookupTables[6][(low >>> 8) & 0xFF] ^
+                    lookupTables[5][(low >>> 16) & 0xFF] ^
+                    lookupTables[4][low >>> 24] ^
+                    lookupTables[3][high & 0xFF] ^
+                    lookupTables[2][(high >>> 8) & 0xFF] ^
+                    lookupTables[1][(high >>> 16) & 0xFF] ^
+                    lookupTables[0][high >>> 24];
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[0][((int) localCrc ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long updateUnreflected(long[][] lookupTables, long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 7) {
+            long word = src.getLong(index);
+            if (!bigEndian) {
+                word = Long.reverseBytes(word);
+            }
+            word ^= localCrc;
+            int high = (int) (word >>> 32);
+            int low = (int) word;
+            localCrc = lookupTables[7][high >>> 24] ^
+                    lookupTables[6][(high >>> 16) & 0xFF] ^
+                    lookupTables[5][(high >>> 8) & 0xFF] ^
+                    lookupTables[4][high & 0xFF] ^
+                    lookupTables[3][low >>> 24] ^
+                    lookupTables[2][(low >>> 16) & 0xFF] ^
+                    lookupTables[1][(low >>> 8) & 0xFF] ^
+                    lookupTables[0][low & 0xFF];
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[0][((int) (localCrc >>> 56) ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
 }
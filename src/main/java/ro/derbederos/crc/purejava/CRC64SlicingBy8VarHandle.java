@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_BIG_ENDIAN;
+import static ro.derbederos.crc.purejava.ByteArrayAccess.LONG_LITTLE_ENDIAN;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 64 using different models.
+ * It uses slicing-by-8 method (8 tables of 256 elements each), but it reads the input
+ * a 64-bit word at a time through a {@link java.lang.invoke.VarHandle} byte array view
+ * (little-endian for reflected models, big-endian for unreflected ones) and xors the whole word
+ * with the CRC register before splitting it into table indices.
+ */
+public class CRC64SlicingBy8VarHandle extends CRC64SlicingBy8 {
+
+    public CRC64SlicingBy8VarHandle(CRCModel crcModel) {
+        super(crcModel);
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        if (refIn) {
+            crc = updateReflected(lookupTables, crc, src, offset, len);
+        } else {
+            crc = updateUnreflected(lookupTables, crc, src, offset, len);
+        }
+    }
+
+    private static long updateReflected(long[][] lookupTables, long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        while (len > 7) {
+            long word = (long) LONG_LITTLE_ENDIAN.get(src, index);
+            word ^= localCrc;
+            int low = (int) word;
+            int high = (int) (word >>> 32);
+            localCrc = lookupTables[7][low & 0xFF] ^
+                    lookupTables[6][(low >>> 8) & 0xFF] ^
+                    lookupTables[5][(low >>> 16) & 0xFF] ^
+                    lookupTables[4][low >>> 24] ^
+                    lookupTables[3][high & 0xFF] ^
+                    lookupTables[2][(high >>> 8) & 0xFF] ^
+                    lookupTables[1][(high >>> 16) & 0xFF] ^
+                    lookupTables[0][high >>> 24];
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ lookupTables[0][((int) localCrc ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long updateUnreflected(long[][] lookupTables, long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        while (len > 7) {
+            long word = (long) LONG_BIG_ENDIAN.get(src, index);
+            word ^= localCrc;
+            int high = (int) (word >>> 32);
+            int low = (int) word;
+            localCrc = lookupTables[7][high >>> 24] ^
+                    lookupTables[6][(high >>> 16) & 0xFF] ^
+                    lookupTables[5][(high >>> 8) & 0xFF] ^
+                    lookupTables[4][high & 0xFF] ^
+                    lookupTables[3][low >>> 24] ^
+                    lookupTables[2][(low >>> 16) & 0xFF] ^
+                    lookupTables[1][(low >>> 8) & 0xFF] ^
+                    lookupTables[0][low & 0xFF];
+            index += 8;
+            len -= 8;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ lookupTables[0][((int) (localCrc >>> 56) ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCEngine;
+import ro.derbederos.crc.CRCModel;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.lang.Long.reverse;
+
+/**
+ * Template of the slicing-by-16 engines specialized per model by {@link CRC64EngineSpecializer}.
+ * Each model gets a hidden class defined from the bytes of this class, whose class data holds the parameters
+ * and the tables of the model. They are kept in static final fields, so the JIT treats them as constants,
+ * folds the branches on refIn and refOut and drops the loads of the table references.
+ * This class itself is never initialized.
+ */
+final class CRC64SpecializedEngine implements CRCEngine {
+
+    private static final CRCModel MODEL;
+    private static final boolean REF_IN;
+    private static final boolean REF_OUT;
+    private static final int WIDTH;
+    private static final long XOR_OUT;
+    private static final long INIT;
+    private static final long[] T0;
+    private static final long[] T1;
+    private static final long[] T2;
+    private static final long[] T3;
+    private static final long[] T4;
+    private static final long[] T5;
+    private static final long[] T6;
+    private static final long[] T7;
+    private static final long[] T8;
+    private static final long[] T9;
+    private static final long[] T10;
+    private static final long[] T11;
+    private static final long[] T12;
+    private static final long[] T13;
+    private static final long[] T14;
+    private static final long[] T15;
+
+    static {
+        Object[] data = CRC64EngineSpecializer.classData(MethodHandles.lookup());
+        MODEL = (CRCModel) data[0];
+        REF_IN = MODEL.getRefIn();
+        REF_OUT = MODEL.getRefOut();
+        WIDTH = MODEL.getWidth();
+        XOR_OUT = MODEL.getXorOut();
+        INIT = (Long) data[1];
+        long[][] lookupTables = (long[][]) data[2];
+        T0 = lookupTables[0];
+        T1 = lookupTables[1];
+        T2 = lookupTables[2];
+        T3 = lookupTables[3];
+        T4 = lookupTables[4];
+        T5 = lookupTables[5];
+        T6 = lookupTables[6];
+        T7 = lookupTables[7];
+        T8 = lookupTables[8];
+        T9 = lookupTables[9];
+        T10 = lookupTables[10];
+        T11 = lookupTables[11];
+        T12 = lookupTables[12];
+        T13 = lookupTables[13];
+        T14 = lookupTables[14];
+        T15 = lookupTables[15];
+    }
+
+    @Override
+    public CRCModel getCRCModel() {
+        return MODEL;
+    }
+
+    @Override
+    public long init() {
+        return INIT;
+    }
+
+    @Override
+    public long update(long state, int b) {
+        if (REF_IN) {
+            return (state >>> 8) ^ T0[((int) state ^ b) & 0xFF];
+        } else {
+            return (state << 8) ^ T0[((int) (state >>> 56) ^ b) & 0xFF];
+        }
+    }
+
+    @Override
+    public long update(long state, byte[] b, int off, int len) {
+        return REF_IN ? updateReflected(state, b, off, len) : updateUnreflected(state, b, off, len);
+    }
+
+    @Override
+    public long update(long state, ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (REF_IN) {
+            state = updateReflected(state, buffer, position, limit - position);
+        } else {
+            state = updateUnreflected(state, buffer, position, limit - position);
+        }
+        ((Buffer) buffer).position(limit);
+        return state;
+    }
+
+    @Override
+    public long finish(long state) {
+        long result = state;
+        if (REF_OUT != REF_IN) {
+            result = reverse(result);
+        }
+        if (!REF_OUT) {
+            result >>>= 64 - WIDTH;
+        }
+        return result ^ XOR_OUT;
+    }
+
+    @Override
+    public long resume(long crc) {
+        long result = crc ^ XOR_OUT;
+        if (!REF_OUT) {
+            result <<= 64 - WIDTH;
+        }
+        if (REF_OUT != REF_IN) {
+            result = reverse(result);
+        }
+        return result;
+    }
+
+    private static long updateReflected(long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            int high = (int) (localCrc >>> 32);
+            int low = (int) localCrc;
+            localCrc = T15[(low ^ src[index]) & 0xFF] ^
+                    T14[((low >>> 8) ^ src[index + 1]) & 0xFF] ^
+                    T13[((low >>> 16) ^ src[index + 2]) & 0xFF] ^
+                    T12[((low >>> 24) ^ src[index + 3]) & 0xFF] ^
+                    T11[(high ^ src[index + 4]) & 0xFF] ^
+                    T10[((high >>> 8) ^ src[index + 5]) & 0xFF] ^
+                    T9[((high >>> 16) ^ src[index + 6]) & 0xFF] ^
+                    T8[((high >>> 24) ^ src[index + 7]) & 0xFF] ^
+                    T7[src[index + 8] & 0xFF] ^
+                    T6[src[index + 9] & 0xFF] ^
+                    T5[src[index + 10] & 0xFF] ^
+                    T4[src[index + 11] & 0xFF] ^
+                    T3[src[index + 12] & 0xFF] ^
+                    T2[src[index + 13] & 0xFF] ^
+                    T1[src[index + 14] & 0xFF] ^
+                    T0[src[index + 15] & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ T0[((int) localCrc ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long updateUnreflected(long crc, byte[] src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        while (len > 15) {
+            int high = (int) (localCrc >>> 32);
+            int low = (int) localCrc;
+            localCrc = T15[((high >>> 24) ^ src[index]) & 0xFF] ^
+                    T14[((high >>> 16) ^ src[index + 1]) & 0xFF] ^
+                    T13[((high >>> 8) ^ src[index + 2]) & 0xFF] ^
+                    T12[(high ^ src[index + 3]) & 0xFF] ^
+                    T11[((low >>> 24) ^ src[index + 4]) & 0xFF] ^
+                    T10[((low >>> 16) ^ src[index + 5]) & 0xFF] ^
+                    T9[((low >>> 8) ^ src[index + 6]) & 0xFF] ^
+                    T8[(low ^ src[index + 7]) & 0xFF] ^
+                    T7[src[index + 8] & 0xFF] ^
+                    T6[src[index + 9] & 0xFF] ^
+                    T5[src[index + 10] & 0xFF] ^
+                    T4[src[index + 11] & 0xFF] ^
+                    T3[src[index + 12] & 0xFF] ^
+                    T2[src[index + 13] & 0xFF] ^
+                    T1[src[index + 14] & 0xFF] ^
+                    T0[src[index + 15] & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ T0[((int) (localCrc >>> 56) ^ src[index++]) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long updateReflected(long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean littleEndian = src.order() == ByteOrder.LITTLE_ENDIAN;
+        while (len > 15) {
+            long word1 = src.getLong(index);
+            long word2 = src.getLong(index + 8);
+            if (!littleEndian) {
+                word1 = Long.reverseBytes(word1);
+                word2 = Long.reverseBytes(word2);
+            }
+            word1 ^= localCrc;
+            int w0 = (int) word1;
+            int w1 = (int) (word1 >>> 32);
+            int w2 = (int) word2;
+            int w3 = (int) (word2 >>> 32);
+            localCrc = T15[w0 & 0xFF] ^
+                    T14[(w0 >>> 8) & 0xFF] ^
+                    T13[(w0 >>> 16) & 0xFF] ^
+                    T12[w0 >>> 24] ^
+                    T11[w1 & 0xFF] ^
+                    T10[(w1 >>> 8) & 0xFF] ^
+                    T9[(w1 >>> 16) & 0xFF] ^
+                    T8[w1 >>> 24] ^
+                    T7[w2 & 0xFF] ^
+                    T6[(w2 >>> 8) & 0xFF] ^
+                    T5[(w2 >>> 16) & 0xFF] ^
+                    T4[w2 >>> 24] ^
+                    T3[w3 & 0xFF] ^
+                    T2[(w3 >>> 8) & 0xFF] ^
+                    T1[(w3 >>> 16) & 0xFF] ^
+                    T0[w3 >>> 24];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc >>> 8) ^ T0[((int) localCrc ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+
+    private static long updateUnreflected(long crc, ByteBuffer src, int offset, int len) {
+        long localCrc = crc;
+        int index = offset;
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        while (len > 15) {
+            long word1 = src.getLong(index);
+            long word2 = src.getLong(index + 8);
+            if (!bigEndian) {
+                word1 = Long.reverseBytes(word1);
+                word2 = Long.reverseBytes(word2);
+            }
+            word1 ^= localCrc;
+            int w0 = (int) (word1 >>> 32);
+            int w1 = (int) word1;
+            int w2 = (int) (word2 >>> 32);
+            int w3 = (int) word2;
+            localCrc = T15[w0 >>> 24] ^
+                    T14[(w0 >>> 16) & 0xFF] ^
+                    T13[(w0 >>> 8) & 0xFF] ^
+                    T12[w0 & 0xFF] ^
+                    T11[w1 >>> 24] ^
+                    T10[(w1 >>> 16) & 0xFF] ^
+                    T9[(w1 >>> 8) & 0xFF] ^
+                    T8[w1 & 0xFF] ^
+                    T7[w2 >>> 24] ^
+                    T6[(w2 >>> 16) & 0xFF] ^
+                    T5[(w2 >>> 8) & 0xFF] ^
+                    T4[w2 & 0xFF] ^
+                    T3[w3 >>> 24] ^
+                    T2[(w3 >>> 16) & 0xFF] ^
+                    T1[(w3 >>> 8) & 0xFF] ^
+                    T0[w3 & 0xFF];
+            index += 16;
+            len -= 16;
+        }
+        while (len > 0) {
+            localCrc = (localCrc << 8) ^ T0[((int) (localCrc >>> 56) ^ src.get(index++)) & 0xFF];
+            len--;
+        }
+        return localCrc;
+    }
+}
@@ -118,4 +118,18 @@ final class CRC64Util {
         }
         return lookupTables;
     }
+
+    /**
+     * Returns the 16 entries table of a 4 bits step. A reflected step consumes the low nibble of the register,
+     * its entries are the ones of the 256 entries table at {@code n << 4}; an unreflected step consumes the high nibble,
+     * its entries are the ones at {@code n}.
+     */
+    static long[] initNibbleLookupTable(long poly, boolean refIn) {
+        long[] lookupTable = refIn ? initLookupTableReflected(poly) : initLookupTableUnreflected(poly);
+        long[] nibbleLookupTable = new long[16];
+        for (int n = 0; n < 16; n++) {
+            nibbleLookupTable[n] = lookupTable[refIn ? n << 4 : n];
+        }
+        return nibbleLookupTable;
+    }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRC;
+import ro.derbederos.crc.CRCModel;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import static ro.derbederos.crc.purejava.LookupTablesCache.getLookupTables8;
+
+/**
+ * Byte-wise CRC implementation that can compute CRC with width &lt;= 8 using different models.
+ * The register and the lookup tables are 8 bits wide ({@code byte[]}), so the tables take a quarter of the
+ * memory used by the {@link CRC32} engines for the same models.
+ * We use the algorithm described by Dilip Sarwate in "Computation of Cyclic Redundancy Checks
+ * via Table Look-Up", 1988
+ */
+public class CRC8 implements CRC {
+
+    protected final CRCModel crcModel;
+    volatile GfUtil gfUtil; // built on first use, see gfUtil()
+    protected final byte[][] lookupTables; // shared between instances, must not be modified
+    protected final int width;
+    protected final int poly;
+    protected final int init;
+    protected final boolean refIn; // reflect input data bytes
+    protected final boolean refOut; // resulted sum needs to be reversed before xor
+    protected int crc;
+
+    public CRC8(CRCModel crcModel) {
+        this(crcModel, 1);
+    }
+
+    CRC8(CRCModel crcModel, int lookupTablesCount) {
+        if (crcModel.getWidth() > 8) {
+            throw new IllegalArgumentException("CRC8: Unsupported width " + crcModel.getWidth() +
+                    " for model " + crcModel.getName());
+        }
+        this.crcModel = crcModel;
+        this.width = crcModel.getWidth();
+        this.refIn = crcModel.getRefIn();
+        this.refOut = crcModel.getRefOut();
+        int poly = (int) crcModel.getPoly() << 8 - width;
+        int init = (int) crcModel.getInit() << 8 - width;
+        if (this.refIn) {
+            this.poly = reverse8(poly);
+            this.init = reverse8(init);
+            this.lookupTables = getLookupTables8(width, this.poly, true, lookupTablesCount);
+        } else {
+            this.poly = poly & 0xFF;
+            this.init = init & 0xFF;
+            this.lookupTables = getLookupTables8(width, this.poly, false, lookupTablesCount);
+        }
+        reset();
+    }
+
+    static int reverse8(int value) {
+        return Integer.reverse(value) >>> 24;
+    }
+
+    @Override
+    public CRCModel getCRCModel() {
+        return crcModel;
+    }
+
+    @Override
+    public void reset() {
+        crc = init;
+    }
+
+    @Override
+    public void update(int b) {
+        crc = updateByte(lookupTables, crc, b);
+    }
+
+    static int updateByte(byte[][] lookupTables, int crc, int b) {
+        // the whole 8 bits register is shifted out by each byte, reflected or not,
+        // so the update steps need no refIn branch
+        return lookupTables[0][(crc ^ b) & 0xFF] & 0xFF;
+    }
+
+    @Override
+    public void update(byte[] src, int offset, int len) {
+        int localCrc = crc;
+        for (int i = offset; i < offset + len; i++) {
+            localCrc = updateByte(lookupTables, localCrc, src[i]);
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public void update(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            update(buffer.array(), buffer.arrayOffset() + position, limit - position);
+        } else {
+            int localCrc = crc;
+            for (int i = position; i < limit; i++) {
+                localCrc = updateByte(lookupTables, localCrc, buffer.get(i));
+            }
+            crc = localCrc;
+        }
+        ((Buffer) buffer).position(limit);
+    }
+
+    @Override
+    public void updateBits(long b, int bits) {
+        // whole bytes go through the lookup table, only the remaining bits are computed one by one
+        int localCrc = crc;
+        if (refIn) {
+            for (; bits > 7; bits -= 8) {
+                localCrc = updateByte(lookupTables, localCrc, (int) b);
+                b >>>= 8;
+            }
+            for (int i = 0; i < bits; i++) {
+                localCrc = (localCrc >>> 1) ^ (poly & -((localCrc ^ (int) b) & 1));
+                b >>>= 1;
+            }
+        } else {
+            for (; bits > 7; bits -= 8) {
+                localCrc = updateByte(lookupTables, localCrc, (int) (b >>> bits - 8));
+            }
+            for (int i = bits - 1; i >= 0; i--) {
+                localCrc = ((localCrc << 1) ^ (poly & -(((localCrc >>> 7) ^ (int) (b >>> i)) & 1))) & 0xFF;
+            }
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public void updateShort(short v, ByteOrder order) {
+        updateValue(order == ByteOrder.BIG_ENDIAN ? Short.reverseBytes(v) : v, 2);
+    }
+
+    @Override
+    public void updateInt(int v, ByteOrder order) {
+        updateValue(order == ByteOrder.BIG_ENDIAN ? Integer.reverseBytes(v) : v, 4);
+    }
+
+    @Override
+    public void updateLong(long v, ByteOrder order) {
+        if (lookupTables.length < 8) {
+            updateValue(order == ByteOrder.BIG_ENDIAN ? Long.reverseBytes(v) : v, 8);
+        } else {
+            // slicing-by-8 on the whole value, the register is xored into its first byte, reflected or not
+            long word = order == ByteOrder.LITTLE_ENDIAN ? v : Long.reverseBytes(v);
+            word ^= crc;
+            crc = (lookupTables[7][(int) word & 0xFF] ^
+                    lookupTables[6][(int) (word >>> 8) & 0xFF] ^
+                    lookupTables[5][(int) (word >>> 16) & 0xFF] ^
+                    lookupTables[4][(int) (word >>> 24) & 0xFF] ^
+                    lookupTables[3][(int) (word >>> 32) & 0xFF] ^
+                    lookupTables[2][(int) (word >>> 40) & 0xFF] ^
+                    lookupTables[1][(int) (word >>> 48) & 0xFF] ^
+                    lookupTables[0][(int) (word >>> 56)]) & 0xFF;
+        }
+    }
+
+    /**
+     * Updates the register with the lowest {@code bytes} bytes of {@code value}, the least significant one first.
+     */
+    private void updateValue(long value, int bytes) {
+        int localCrc = crc;
+        for (int i = 0; i < bytes; i++) {
+            localCrc = updateByte(lookupTables, localCrc, (int) value);
+            value >>>= 8;
+        }
+        crc = localCrc;
+    }
+
+    @Override
+    public long getValue() {
+        long result = crc;
+        //reflect output when necessary
+        if (refOut != refIn) {
+            result = reverse8(crc);
+        }
+        if (!refOut) {
+            result >>>= 8 - width;
+        }
+        result = result ^ crcModel.getXorOut();
+        return result;
+    }
+
+    @Override
+    public void setValue(long crc) {
+        int result = (int) (crc ^ crcModel.getXorOut());
+        if (!refOut) {
+            result <<= 8 - width;
+        }
+        //reflect output when necessary
+        if (refOut != refIn) {
+            result = reverse8(result);
+        }
+        this.crc = result & 0xFF;
+    }
+
+    /**
+     * Returns the GF(2) state of the polynomial. It is built on the first call, engines that never combine CRCs
+     * do not hold its (x ** n mod P) window tables.
+     */
+    GfUtil gfUtil() {
+        GfUtil gfUtil = this.gfUtil;
+        if (gfUtil == null) {
+            // two threads may build it, the instances are equivalent
+            gfUtil = refOut ? new GfUtil32Reflected(crcModel) : new GfUtil32Unreflected(crcModel);
+            this.gfUtil = gfUtil;
+        }
+        return gfUtil;
+    }
+
+    @Override
+    public long getCrcOfCrc() {
+        return gfUtil().getCrcOfCrc() ^ crcModel.getXorOut();
+    }
+
+    @Override
+    public long concatenate(long crcA, long crcB, long bytesB) {
+        return gfUtil().concatenate(crcA, crcB, bytesB);
+    }
+
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytesB) {
+        return gfUtil().concatenateOperator(bytesB);
+    }
+
+    @Override
+    public long concatenateZeroes(long crcA, long bytesB) {
+        return gfUtil().crcOfZeroes(bytesB, crcA);
+    }
+
+    @Override
+    public LongUnaryOperator concatenateZeroesOperator(long bytesB) {
+        return gfUtil().crcOfZeroesOperator(bytesB);
+    }
+}
@@ -16,6 +16,9 @@
 
 package ro.derbederos.crc.purejava;
 
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
 /**
  * Andrew Kadatch's and Bob Jenkins's gf_util functions from crcutil library
  * (https://code.google.com/archive/p/crcutil/downloads).
@@ -36,6 +39,18 @@ interface GfUtil {
      */
     long crcOfZeroes(long bytes, long start);
 
+    /**
+     * Returns a thread safe operator computing {@link #concatenate(long, long, long)}
+     * for blocks B of (bytes_B) bytes -- one multiplication per call.
+     */
+    LongBinaryOperator concatenateOperator(long bytes_B);
+
+    /**
+     * Returns a thread safe operator computing {@link #crcOfZeroes(long, long)}
+     * for (bytes) zeroes -- one multiplication per call.
+     */
+    LongUnaryOperator crcOfZeroesOperator(long bytes);
+
     /**
      * Returns expected CRC value of {@code CRC(Message,CRC(Message))}
      * when CRC is stored after the message. This value is fixed
@@ -18,7 +18,9 @@ package ro.derbederos.crc.purejava;
 
 import ro.derbederos.crc.CRCModel;
 
-import static java.lang.Integer.compareUnsigned;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
 import static java.lang.Integer.toUnsignedLong;
 import static java.lang.Long.reverse;
 
@@ -31,49 +33,78 @@ class GfUtil32Reflected implements GfUtil {
     private final int degree;
     private final int init;
     private final int canonize;
-    private int[] x_pow_2n = new int[Long.BYTES * 8];
-    private int one;
-    private int[] normalize = new int[2];
+    private final int[] x_pow_n; // shared between instances, must not be modified
+    private final int one;
+    private final int[] normalize;
+    private final int[] reduce; // shared between instances, must not be modified
+
+    private final XPow8NCache<int[]> xPow8NCache = new XPow8NCache<>(this::windowsOfXpow8N);
 
-    private long crcOfCrc;
+    private final long crcOfCrc;
 
     GfUtil32Reflected(CRCModel crcModel) {
         this.degree = crcModel.getWidth();
         int poly = (int) (reverse(crcModel.getPoly()) >>> (64 - this.degree));
         this.init = (int) (reverse(crcModel.getInit()) >>> (64 - this.degree));
         this.canonize = (int) (reverse(crcModel.getXorOut()) >>> (64 - this.degree));
-        init(poly);
+        this.one = 1 << (this.degree - 1);
+        this.normalize = new int[]{0, poly};
+        this.reduce = LookupTablesCache.getLookupTables32(this.degree, poly, true, 1)[0];
+        this.x_pow_n = LookupTablesCache.getXPowN32(this.degree, poly, true, this::initXPowN);
+        this.crcOfCrc = toUnsignedLong(multiply(this.canonize, this.one ^ XpowNInternal(this.degree)));
     }
 
     /**
-     * Initializes the tables given generating polynomial of degree (degree).
-     * If "canonical" is true, starting CRC value and computed CRC value will be
-     * XOR-ed with 111...111.
+     * Computes (x ** (d * 16 ** j) mod P), d = 1..15, j = 0..15, for the generating polynomial of degree (degree),
+     * stored as the 32 entries window tables built by {@link #initWindows(int, int[], int)},
+     * the tables of (x ** (d * 16 ** j)) starting at index ((j * 15 + d - 1) * 32).
+     * These values depend only on the polynomial and are shared between the models using it.
      */
-    private void init(int poly) {
-        int one = 1;
-        one <<= this.degree - 1;
-        this.one = one;
+    private int[] initXPowN() {
+        int[] x_pow_n = new int[16 * 15 * 32];
+        int k = this.one >>> 1;
 
-        this.normalize[0] = 0;
-        this.normalize[1] = poly;
+        for (int j = 0; j < 16; j++) {
+            int base = j * 15 << 5;
+            initWindows(k, x_pow_n, base);
+            int v = k;
+            for (int d = 2; d <= 15; d++) {
+                v = multiply(v, x_pow_n, base);
+                initWindows(v, x_pow_n, base + ((d - 1) << 5));
+            }
+            k = multiply(v, x_pow_n, base);
+        }
+        return x_pow_n;
+    }
 
-        int k = one >>> 1;
+    /**
+     * Fills the 32 entries window tables of b: the first 16 entries are the window table of b,
+     * the next 16 entries are the window table of (b * x ** 4 mod P).
+     */
+    private void initWindows(int b, int[] table, int offset) {
+        initWindow(b, table, offset);
+        initWindow(multiplyByX(multiplyByX(multiplyByX(multiplyByX(b)))), table, offset | 16);
+    }
 
-        for (int i = 0; i < this.x_pow_2n.length; i++) {
-            this.x_pow_2n[i] = k;
-            k = multiply(k, k);
+    /**
+     * Fills the 16 entries window table of b: entry v is ((v * b) mod P),
+     * where bit i of v stands for x ** (3 - i), the order in which a reflected value stores them.
+     */
+    private void initWindow(int b, int[] table, int offset) {
+        int b1 = multiplyByX(b);
+        int b2 = multiplyByX(b1);
+        int b3 = multiplyByX(b2);
+        for (int v = 0; v < 16; v++) {
+            table[offset | v] = (b3 & -(v & 1)) ^ (b2 & -((v >>> 1) & 1)) ^ (b1 & -((v >>> 2) & 1)) ^ (b & -(v >>> 3));
         }
-
-        this.crcOfCrc = toUnsignedLong(multiply(this.canonize, this.one ^ XpowNInternal(this.degree)));
     }
 
     /**
      * Returns value of CRC(A, |A|, start_new) given known
      * crc=CRC(A, |A|, start_old) -- without touching the data.
      */
-    private int changeStartValue(int crc, long bytes, int start_old, int start_new) {
-        return (crc ^ multiply(start_new ^ start_old, Xpow8NInternal(bytes)));
+    int changeStartValue(int crc, long bytes, int start_old, int start_new) {
+        return (crc ^ multiplyByXpowN(start_new ^ start_old, bytes << 3));
     }
 
     /**
@@ -94,10 +125,24 @@ class GfUtil32Reflected implements GfUtil {
      */
     @Override
     public long crcOfZeroes(long bytes, long start) {
-        int tmp = this.canonize ^ multiply((int) start ^ this.canonize, Xpow8NInternal(bytes));
+        int tmp = this.canonize ^ multiplyByXpow8NCached((int) start ^ this.canonize, bytes);
         return toUnsignedLong(tmp);
     }
 
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytes_B) {
+        int[] windows = windowsOfXpow8N(bytes_B);
+        int start_B = this.init ^ this.canonize;
+        return (crc_A, crc_B) -> toUnsignedLong((int) crc_B ^ multiply((int) crc_A ^ start_B, windows, 0));
+    }
+
+    @Override
+    public LongUnaryOperator crcOfZeroesOperator(long bytes) {
+        int[] windows = windowsOfXpow8N(bytes);
+        int canonize = this.canonize;
+        return start -> toUnsignedLong(canonize ^ multiply((int) start ^ canonize, windows, 0));
+    }
+
     /**
      * Returns expected CRC value of {@code CRC(Message,CRC(Message))}
      * when CRC is stored after the message. This value is fixed
@@ -121,70 +166,80 @@ class GfUtil32Reflected implements GfUtil {
      * Returns (x ** n mod P).
      */
     int XpowNInternal(long n) {
-        int result = this.one;
+        return multiplyByXpowN(this.one, n);
+    }
+
+    /**
+     * Returns ((a * x ** n) mod P), one table driven multiplication for each non zero hex digit of n.
+     */
+    private int multiplyByXpowN(int a, long n) {
+        int result = a;
 
-        for (int i = 0; n != 0; i++, n >>>= 1) {
-            if ((n & 1) != 0) {
-                result = multiply(result, this.x_pow_2n[i]);
+        for (int j = 0; n != 0; j++, n >>>= 4) {
+            int d = (int) n & 0xF;
+            if (d != 0) {
+                result = multiply(result, this.x_pow_n, (j * 15 + d - 1) << 5);
             }
         }
         return result;
     }
 
+    /**
+     * Returns ((a * x ** (8 * n)) mod P), taking the window tables from the cache
+     * when (8 * n) has more than one non zero hex digit.
+     */
+    private int multiplyByXpow8NCached(int a, long n) {
+        long exponent = n << 3;
+        if ((exponent >>> (Long.numberOfTrailingZeros(exponent) & ~3)) < 16) {
+            return multiplyByXpowN(a, exponent);
+        }
+        return multiply(a, this.xPow8NCache.get(n), 0);
+    }
+
+    /**
+     * Returns the window tables of (x ** (8 * n) mod P).
+     */
+    private int[] windowsOfXpow8N(long n) {
+        int[] windows = new int[32];
+        initWindows(multiplyByXpowN(this.one, n << 3), windows, 0);
+        return windows;
+    }
+
     @Override
     public long XpowN(long n) {
-        return XpowNInternal(n);
+        return toUnsignedLong(XpowNInternal(n));
     }
 
     /**
      * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
      */
     private int multiply(int aa, int bb) {
-        return multiplyCrcUtil(aa, bb);
+        int[] windows = new int[32];
+        initWindows(bb, windows, 0);
+        return multiply(aa, windows, 0);
     }
 
     /**
-     * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
+     * Returns ((a * b) mod P) where "a" is of degree <= (D-1) and "table" holds the window tables of "b".
+     * The bits of "a" are processed 8 at a time, from the highest order term to the lowest (Horner's rule).
      */
-    //https://github.com/torvalds/linux/blob/master/lib/crc32.c#L213 - gf2_multiply
-    private int multiplyLinuxKernel(int x, int y) {
-        int product = (x & 1) == 1 ? y : 0;
-
-        for (int i = 0; i < this.degree - 1; i++) {
-            product = (product >>> 1) ^ this.normalize[product & 1];
-            x >>>= 1;
-            product ^= (x & 1) == 1 ? y : 0;
+    private int multiply(int a, int[] table, int offset) {
+        int[] reduce = this.reduce;
+        // the highest order term of "a" is in bit 0, align x ** 0 to bit 31 and skip the empty windows
+        int bits = a << (32 - this.degree);
+        int product = 0;
+        for (int shift = (32 - this.degree) & ~7; shift < 32; shift += 8) {
+            int c = bits >>> shift;
+            product = (product >>> 8) ^ reduce[product & 0xFF] ^ table[offset | 16 | (c & 0xF)] ^ table[offset | ((c >>> 4) & 0xF)];
         }
-
         return product;
     }
 
     /**
-     * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
+     * Returns ((a * x) mod P).
      */
-    private int multiplyCrcUtil(int aa, int bb) {
-        int a = aa;
-        int b = bb;
-        if (compareUnsigned(a ^ (a - 1), b ^ (b - 1)) < 0) {
-            int temp = a;
-            a = b;
-            b = temp;
-        }
-
-        if (a == 0) {
-            return a;
-        }
-
-        int product = 0;
-        int one = this.one;
-        for (; a != 0; a <<= 1) {
-            if ((a & one) != 0) {
-                product ^= b;
-                a ^= one;
-            }
-            b = (b >>> 1) ^ this.normalize[b & 1];
-        }
-        return product;
+    private int multiplyByX(int a) {
+        return (a >>> 1) ^ this.normalize[a & 1];
     }
 
     /**
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * Counterpart of {@link GfUtil32Reflected} for the models that do not reflect the output.
+ * <p>
+ * The values are kept unreflected, aligned to the left of the 32 bit register:
+ * x ** (degree - 1) is bit 31 and x ** 0 is bit (32 - degree).
+ */
+class GfUtil32Unreflected implements GfUtil {
+
+    private final int degree;
+    private final int init;
+    private final int canonize;
+    private final int[] x_pow_n; // shared between instances, must not be modified
+    private final int one;
+    private final int[] normalize;
+    private final int[] reduce; // shared between instances, must not be modified
+
+    private final XPow8NCache<int[]> xPow8NCache = new XPow8NCache<>(this::windowsOfXpow8N);
+
+    private final long crcOfCrc;
+
+    GfUtil32Unreflected(CRCModel crcModel) {
+        this.degree = crcModel.getWidth();
+        int poly = toRegister(crcModel.getPoly());
+        this.init = toRegister(crcModel.getInit());
+        this.canonize = toRegister(crcModel.getXorOut());
+        this.one = 1 << (32 - this.degree);
+        this.normalize = new int[]{0, poly};
+        this.reduce = LookupTablesCache.getLookupTables32(this.degree, poly, false, 1)[0];
+        this.x_pow_n = LookupTablesCache.getXPowN32(this.degree, poly, false, this::initXPowN);
+        this.crcOfCrc = toValue(multiply(this.canonize, this.one ^ XpowNInternal(this.degree)));
+    }
+
+    /**
+     * Computes (x ** (d * 16 ** j) mod P), d = 1..15, j = 0..15, for the generating polynomial of degree (degree),
+     * stored as the 32 entries window tables built by {@link #initWindows(int, int[], int)},
+     * the tables of (x ** (d * 16 ** j)) starting at index ((j * 15 + d - 1) * 32).
+     * These values depend only on the polynomial and are shared between the models using it.
+     */
+    private int[] initXPowN() {
+        int[] x_pow_n = new int[16 * 15 * 32];
+        int k = multiplyByX(this.one);
+
+        for (int j = 0; j < 16; j++) {
+            int base = j * 15 << 5;
+            initWindows(k, x_pow_n, base);
+            int v = k;
+            for (int d = 2; d <= 15; d++) {
+                v = multiply(v, x_pow_n, base);
+                initWindows(v, x_pow_n, base + ((d - 1) << 5));
+            }
+            k = multiply(v, x_pow_n, base);
+        }
+        return x_pow_n;
+    }
+
+    /**
+     * Fills the 32 entries window tables of b: the first 16 entries are the window table of b,
+     * the next 16 entries are the window table of (b * x ** 4 mod P).
+     */
+    private void initWindows(int b, int[] table, int offset) {
+        initWindow(b, table, offset);
+        initWindow(multiplyByX(multiplyByX(multiplyByX(multiplyByX(b)))), table, offset | 16);
+    }
+
+    /**
+     * Fills the 16 entries window table of b: entry v is ((v * b) mod P), where bit i of v stands for x ** i.
+     */
+    private void initWindow(int b, int[] table, int offset) {
+        int b1 = multiplyByX(b);
+        int b2 = multiplyByX(b1);
+        int b3 = multiplyByX(b2);
+        for (int v = 0; v < 16; v++) {
+            table[offset | v] = (b & -(v & 1)) ^ (b1 & -((v >>> 1) & 1)) ^ (b2 & -((v >>> 2) & 1)) ^ (b3 & -(v >>> 3));
+        }
+    }
+
+    /**
+     * Returns value of CRC(A, |A|, start_new) given known
+     * crc=CRC(A, |A|, start_old) -- without touching the data.
+     */
+    private int changeStartValue(int crc, long bytes, int start_old, int start_new) {
+        return (crc ^ multiplyByXpowN(start_new ^ start_old, bytes << 3));
+    }
+
+    /**
+     * Returns CRC of concatenation of blocks A and B when CRCs
+     * of blocks A and B are known -- without touching the data.
+     * <p>
+     * To be precise, given CRC(A, |A|, startA) and CRC(B, |B|, 0),
+     * returns CRC(AB, |AB|, startA).
+     */
+    @Override
+    public long concatenate(long crc_A, long crc_B, long bytes_B) {
+        int result = changeStartValue(toRegister(crc_B), bytes_B, this.init ^ this.canonize/* start_B */, toRegister(crc_A));
+        return toValue(result);
+    }
+
+    /**
+     * Returns CRC of sequence of zeroes -- without touching the data.
+     */
+    @Override
+    public long crcOfZeroes(long bytes, long start) {
+        int tmp = this.canonize ^ multiplyByXpow8NCached(toRegister(start) ^ this.canonize, bytes);
+        return toValue(tmp);
+    }
+
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytes_B) {
+        int[] windows = windowsOfXpow8N(bytes_B);
+        int start_B = this.init ^ this.canonize;
+        return (crc_A, crc_B) -> toValue(toRegister(crc_B) ^ multiply(toRegister(crc_A) ^ start_B, windows, 0));
+    }
+
+    @Override
+    public LongUnaryOperator crcOfZeroesOperator(long bytes) {
+        int[] windows = windowsOfXpow8N(bytes);
+        int canonize = this.canonize;
+        return start -> toValue(canonize ^ multiply(toRegister(start) ^ canonize, windows, 0));
+    }
+
+    /**
+     * Returns expected CRC value of {@code CRC(Message,CRC(Message))}
+     * when CRC is stored after the message. This value is fixed
+     * and does not depend on the message or CRC start value.
+     * This is also called <b>residue</b>.
+     */
+    @Override
+    public long getCrcOfCrc() {
+        return this.crcOfCrc;
+    }
+
+    /**
+     * Returns (x ** n mod P).
+     */
+    int XpowNInternal(long n) {
+        return multiplyByXpowN(this.one, n);
+    }
+
+    @Override
+    public long XpowN(long n) {
+        return toValue(XpowNInternal(n));
+    }
+
+    /**
+     * Returns ((a * x ** n) mod P), one table driven multiplication for each non zero hex digit of n.
+     */
+    private int multiplyByXpowN(int a, long n) {
+        int result = a;
+
+        for (int j = 0; n != 0; j++, n >>>= 4) {
+            int d = (int) n & 0xF;
+            if (d != 0) {
+                result = multiply(result, this.x_pow_n, (j * 15 + d - 1) << 5);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns ((a * x ** (8 * n)) mod P), taking the window tables from the cache
+     * when (8 * n) has more than one non zero hex digit.
+     */
+    private int multiplyByXpow8NCached(int a, long n) {
+        long exponent = n << 3;
+        if ((exponent >>> (Long.numberOfTrailingZeros(exponent) & ~3)) < 16) {
+            return multiplyByXpowN(a, exponent);
+        }
+        return multiply(a, this.xPow8NCache.get(n), 0);
+    }
+
+    /**
+     * Returns the window tables of (x ** (8 * n) mod P).
+     */
+    private int[] windowsOfXpow8N(long n) {
+        int[] windows = new int[32];
+        initWindows(multiplyByXpowN(this.one, n << 3), windows, 0);
+        return windows;
+    }
+
+    /**
+     * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
+     */
+    private int multiply(int aa, int bb) {
+        int[] windows = new int[32];
+        initWindows(bb, windows, 0);
+        return multiply(aa, windows, 0);
+    }
+
+    /**
+     * Returns ((a * b) mod P) where "a" is of degree <= (D-1) and "table" holds the window tables of "b".
+     * The bits of "a" are processed 8 at a time, from the highest order term to the lowest (Horner's rule).
+     */
+    private int multiply(int a, int[] table, int offset) {
+        int[] reduce = this.reduce;
+        // align x ** 0 to bit 0 and skip the empty windows
+        int bits = a >>> (32 - this.degree);
+        int product = 0;
+        for (int shift = (this.degree - 1) & ~7; shift >= 0; shift -= 8) {
+            int c = bits >>> shift;
+            product = (product << 8) ^ reduce[product >>> 24] ^ table[offset | 16 | ((c >>> 4) & 0xF)] ^ table[offset | (c & 0xF)];
+        }
+        return product;
+    }
+
+    /**
+     * Returns ((a * x) mod P).
+     */
+    private int multiplyByX(int a) {
+        return (a << 1) ^ this.normalize[a >>> 31];
+    }
+
+    private int toRegister(long value) {
+        return (int) value << (32 - this.degree);
+    }
+
+    private long toValue(int value) {
+        return toUnsignedLong(value >>> (32 - this.degree));
+    }
+}
@@ -18,7 +18,9 @@ package ro.derbederos.crc.purejava;
 
 import ro.derbederos.crc.CRCModel;
 
-import static java.lang.Long.compareUnsigned;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
 import static java.lang.Long.reverse;
 
 /**
@@ -30,41 +32,70 @@ class GfUtil64Reflected implements GfUtil {
     private final int degree;
     private final long init;
     private final long canonize;
-    private long[] x_pow_2n = new long[Long.BYTES * 8];
-    private long one;
-    private long[] normalize = new long[2];
+    private final long[] x_pow_n; // shared between instances, must not be modified
+    private final long one;
+    private final long[] normalize;
+    private final long[] reduce; // shared between instances, must not be modified
+
+    private final XPow8NCache<long[]> xPow8NCache = new XPow8NCache<>(this::windowsOfXpow8N);
 
-    private long crcOfCrc;
+    private final long crcOfCrc;
 
     GfUtil64Reflected(CRCModel crcModel) {
         this.degree = crcModel.getWidth();
         long poly = reverse(crcModel.getPoly()) >>> (64 - this.degree);
         this.init = reverse(crcModel.getInit()) >>> (64 - this.degree);
         this.canonize = reverse(crcModel.getXorOut()) >>> (64 - this.degree);
-        init(poly);
+        this.one = 1L << (this.degree - 1);
+        this.normalize = new long[]{0, poly};
+        this.reduce = LookupTablesCache.getLookupTables64(this.degree, poly, true, 1)[0];
+        this.x_pow_n = LookupTablesCache.getXPowN64(this.degree, poly, true, this::initXPowN);
+        this.crcOfCrc = multiply(this.canonize, this.one ^ XpowN(this.degree));
     }
 
     /**
-     * Initializes the tables given generating polynomial of degree (degree).
-     * If "canonical" is true, starting CRC value and computed CRC value will be
-     * XOR-ed with 111...111.
+     * Computes (x ** (d * 16 ** j) mod P), d = 1..15, j = 0..15, for the generating polynomial of degree (degree),
+     * stored as the 32 entries window tables built by {@link #initWindows(long, long[], int)},
+     * the tables of (x ** (d * 16 ** j)) starting at index ((j * 15 + d - 1) * 32).
+     * These values depend only on the polynomial and are shared between the models using it.
      */
-    private void init(long poly) {
-        long one = 1;
-        one <<= this.degree - 1;
-        this.one = one;
-
-        this.normalize[0] = 0;
-        this.normalize[1] = poly;
+    private long[] initXPowN() {
+        long[] x_pow_n = new long[16 * 15 * 32];
+        long k = this.one >>> 1;
+
+        for (int j = 0; j < 16; j++) {
+            int base = j * 15 << 5;
+            initWindows(k, x_pow_n, base);
+            long v = k;
+            for (int d = 2; d <= 15; d++) {
+                v = multiply(v, x_pow_n, base);
+                initWindows(v, x_pow_n, base + ((d - 1) << 5));
+            }
+            k = multiply(v, x_pow_n, base);
+        }
+        return x_pow_n;
+    }
 
-        long k = one >>> 1;
+    /**
+     * Fills the 32 entries window tables of b: the first 16 entries are the window table of b,
+     * the next 16 entries are the window table of (b * x ** 4 mod P).
+     */
+    private void initWindows(long b, long[] table, int offset) {
+        initWindow(b, table, offset);
+        initWindow(multiplyByX(multiplyByX(multiplyByX(multiplyByX(b)))), table, offset | 16);
+    }
 
-        for (int i = 0; i < this.x_pow_2n.length; i++) {
-            this.x_pow_2n[i] = k;
-            k = multiply(k, k);
+    /**
+     * Fills the 16 entries window table of b: entry v is ((v * b) mod P),
+     * where bit i of v stands for x ** (3 - i), the order in which a reflected value stores them.
+     */
+    private void initWindow(long b, long[] table, int offset) {
+        long b1 = multiplyByX(b);
+        long b2 = multiplyByX(b1);
+        long b3 = multiplyByX(b2);
+        for (int v = 0; v < 16; v++) {
+            table[offset | v] = (b3 & -(v & 1)) ^ (b2 & -((v >>> 1) & 1)) ^ (b1 & -((v >>> 2) & 1)) ^ (b & -(v >>> 3));
         }
-
-        this.crcOfCrc = multiply(this.canonize, this.one ^ XpowN(this.degree));
     }
 
     /**
@@ -72,7 +103,7 @@ class GfUtil64Reflected implements GfUtil {
      * crc=CRC(A, |A|, start_old) -- without touching the data.
      */
     private long changeStartValue(long crc, long bytes, long start_old, long start_new) {
-        return (crc ^ multiply(start_new ^ start_old, Xpow8N(bytes)));
+        return (crc ^ multiplyByXpowN(start_new ^ start_old, bytes << 3));
     }
 
     /**
@@ -92,10 +123,24 @@ class GfUtil64Reflected implements GfUtil {
      */
     @Override
     public long crcOfZeroes(long bytes, long start) {
-        long tmp = this.canonize ^ multiply(start ^ this.canonize, Xpow8N(bytes));
+        long tmp = this.canonize ^ multiplyByXpow8NCached(start ^ this.canonize, bytes);
         return tmp;
     }
 
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytes_B) {
+        long[] windows = windowsOfXpow8N(bytes_B);
+        long start_B = this.init ^ this.canonize;
+        return (crc_A, crc_B) -> crc_B ^ multiply(crc_A ^ start_B, windows, 0);
+    }
+
+    @Override
+    public LongUnaryOperator crcOfZeroesOperator(long bytes) {
+        long[] windows = windowsOfXpow8N(bytes);
+        long canonize = this.canonize;
+        return start -> canonize ^ multiply(start ^ canonize, windows, 0);
+    }
+
     /**
      * Returns expected CRC value of {@code CRC(Message,CRC(Message))}
      * when CRC is stored after the message. This value is fixed
@@ -112,67 +157,77 @@ class GfUtil64Reflected implements GfUtil {
      */
     @Override
     public long XpowN(long n) {
-        long result = this.one;
+        return multiplyByXpowN(this.one, n);
+    }
 
-        for (int i = 0; n != 0; i++, n >>>= 1) {
-            if ((n & 1) != 0) {
-                result = multiply(result, this.x_pow_2n[i]);
+    /**
+     * Returns ((a * x ** n) mod P), one table driven multiplication for each non zero hex digit of n.
+     */
+    private long multiplyByXpowN(long a, long n) {
+        long result = a;
+
+        for (int j = 0; n != 0; j++, n >>>= 4) {
+            int d = (int) n & 0xF;
+            if (d != 0) {
+                result = multiply(result, this.x_pow_n, (j * 15 + d - 1) << 5);
             }
         }
         return result;
     }
 
     /**
-     * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
+     * Returns ((a * x ** (8 * n)) mod P), taking the window tables from the cache
+     * when (8 * n) has more than one non zero hex digit.
      */
-    private long multiply(long aa, long bb) {
-        return multiplyCrcUtil(aa, bb);
+    private long multiplyByXpow8NCached(long a, long n) {
+        long exponent = n << 3;
+        if ((exponent >>> (Long.numberOfTrailingZeros(exponent) & ~3)) < 16) {
+            return multiplyByXpowN(a, exponent);
+        }
+        return multiply(a, this.xPow8NCache.get(n), 0);
     }
 
     /**
-     * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
+     * Returns the window tables of (x ** (8 * n) mod P).
      */
-    //https://github.com/torvalds/linux/blob/master/lib/crc32.c#L213 - gf2_multiply
-    private long multiplyLinuxKernel(long x, long y) {
-        long product = (x & 1) == 1 ? y : 0;
-
-        for (int i = 0; i < this.degree - 1; i++) {
-            product = (product >>> 1) ^ this.normalize[(int) (product & 1)];
-            x >>>= 1;
-            product ^= (x & 1) == 1 ? y : 0;
-        }
-
-        return product;
+    private long[] windowsOfXpow8N(long n) {
+        long[] windows = new long[32];
+        initWindows(multiplyByXpowN(this.one, n << 3), windows, 0);
+        return windows;
     }
 
     /**
      * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
      */
-    private long multiplyCrcUtil(long aa, long bb) {
-        long a = aa;
-        long b = bb;
-        if (compareUnsigned(a ^ (a - 1), b ^ (b - 1)) < 0) {
-            long temp = a;
-            a = b;
-            b = temp;
-        }
-
-        if (a == 0) {
-            return a;
-        }
+    private long multiply(long aa, long bb) {
+        long[] windows = new long[32];
+        initWindows(bb, windows, 0);
+        return multiply(aa, windows, 0);
+    }
 
+    /**
+     * Returns ((a * b) mod P) where "a" is of degree <= (D-1) and "table" holds the window tables of "b".
+     * The bits of "a" are processed 8 at a time, from the highest order term to the lowest (Horner's rule).
+     */
+    private long multiply(long a, long[] table, int offset) {
+        long[] reduce = this.reduce;
+        // the highest order term of "a" is in bit 0, align x ** 0 to bit 63 and skip the empty windows
+        long bits = a << (64 - this.degree);
         long product = 0;
-        long one = this.one;
-        for (; a != 0; a <<= 1) {
-            if ((a & one) != 0) {
-                product ^= b;
-                a ^= one;
-            }
-            b = (b >>> 1) ^ this.normalize[(int) (b & 1)];
+        for (int shift = (64 - this.degree) & ~7; shift < 64; shift += 8) {
+            int c = (int) (bits >>> shift);
+            product = (product >>> 8) ^ reduce[(int) product & 0xFF] ^ table[offset | 16 | (c & 0xF)] ^ table[offset | ((c >>> 4) & 0xF)];
         }
         return product;
     }
 
+    /**
+     * Returns ((a * x) mod P).
+     */
+    private long multiplyByX(long a) {
+        return (a >>> 1) ^ this.normalize[(int) (a & 1)];
+    }
+
     /**
      * Returns ((unnorm * m) mod P) where degree of m is <= (D-1)
      * and degree of value "unnorm" is provided explicitly.
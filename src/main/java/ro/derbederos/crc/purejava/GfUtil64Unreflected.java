@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import ro.derbederos.crc.CRCModel;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Counterpart of {@link GfUtil64Reflected} for the models that do not reflect the output.
+ * <p>
+ * The values are kept unreflected, aligned to the left of the 64 bit register:
+ * x ** (degree - 1) is bit 63 and x ** 0 is bit (64 - degree).
+ */
+class GfUtil64Unreflected implements GfUtil {
+
+    private final int degree;
+    private final long init;
+    private final long canonize;
+    private final long[] x_pow_n; // shared between instances, must not be modified
+    private final long one;
+    private final long[] normalize;
+    private final long[] reduce; // shared between instances, must not be modified
+
+    private final XPow8NCache<long[]> xPow8NCache = new XPow8NCache<>(this::windowsOfXpow8N);
+
+    private final long crcOfCrc;
+
+    GfUtil64Unreflected(CRCModel crcModel) {
+        this.degree = crcModel.getWidth();
+        long poly = toRegister(crcModel.getPoly());
+        this.init = toRegister(crcModel.getInit());
+        this.canonize = toRegister(crcModel.getXorOut());
+        this.one = 1L << (64 - this.degree);
+        this.normalize = new long[]{0, poly};
+        this.reduce = LookupTablesCache.getLookupTables64(this.degree, poly, false, 1)[0];
+        this.x_pow_n = LookupTablesCache.getXPowN64(this.degree, poly, false, this::initXPowN);
+        this.crcOfCrc = toValue(multiply(this.canonize, this.one ^ XpowNInternal(this.degree)));
+    }
+
+    /**
+     * Computes (x ** (d * 16 ** j) mod P), d = 1..15, j = 0..15, for the generating polynomial of degree (degree),
+     * stored as the 32 entries window tables built by {@link #initWindows(long, long[], int)},
+     * the tables of (x ** (d * 16 ** j)) starting at index ((j * 15 + d - 1) * 32).
+     * These values depend only on the polynomial and are shared between the models using it.
+     */
+    private long[] initXPowN() {
+        long[] x_pow_n = new long[16 * 15 * 32];
+        long k = multiplyByX(this.one);
+
+        for (int j = 0; j < 16; j++) {
+            int base = j * 15 << 5;
+            initWindows(k, x_pow_n, base);
+            long v = k;
+            for (int d = 2; d <= 15; d++) {
+                v = multiply(v, x_pow_n, base);
+                initWindows(v, x_pow_n, base + ((d - 1) << 5));
+            }
+            k = multiply(v, x_pow_n, base);
+        }
+        return x_pow_n;
+    }
+
+    /**
+     * Fills the 32 entries window tables of b: the first 16 entries are the window table of b,
+     * the next 16 entries are the window table of (b * x ** 4 mod P).
+     */
+    private void initWindows(long b, long[] table, int offset) {
+        initWindow(b, table, offset);
+        initWindow(multiplyByX(multiplyByX(multiplyByX(multiplyByX(b)))), table, offset | 16);
+    }
+
+    /**
+     * Fills the 16 entries window table of b: entry v is ((v * b) mod P), where bit i of v stands for x ** i.
+     */
+    private void initWindow(long b, long[] table, int offset) {
+        long b1 = multiplyByX(b);
+        long b2 = multiplyByX(b1);
+        long b3 = multiplyByX(b2);
+        for (int v = 0; v < 16; v++) {
+            table[offset | v] = (b & -(v & 1)) ^ (b1 & -((v >>> 1) & 1)) ^ (b2 & -((v >>> 2) & 1)) ^ (b3 & -(v >>> 3));
+        }
+    }
+
+    /**
+     * Returns value of CRC(A, |A|, start_new) given known
+     * crc=CRC(A, |A|, start_old) -- without touching the data.
+     */
+    private long changeStartValue(long crc, long bytes, long start_old, long start_new) {
+        return (crc ^ multiplyByXpowN(start_new ^ start_old, bytes << 3));
+    }
+
+    /**
+     * Returns CRC of concatenation of blocks A and B when CRCs
+     * of blocks A and B are known -- without touching the data.
+     * <p>
+     * To be precise, given CRC(A, |A|, startA) and CRC(B, |B|, 0),
+     * returns CRC(AB, |AB|, startA).
+     */
+    @Override
+    public long concatenate(long crc_A, long crc_B, long bytes_B) {
+        long result = changeStartValue(toRegister(crc_B), bytes_B, this.init ^ this.canonize/* start_B */, toRegister(crc_A));
+        return toValue(result);
+    }
+
+    /**
+     * Returns CRC of sequence of zeroes -- without touching the data.
+     */
+    @Override
+    public long crcOfZeroes(long bytes, long start) {
+        long tmp = this.canonize ^ multiplyByXpow8NCached(toRegister(start) ^ this.canonize, bytes);
+        return toValue(tmp);
+    }
+
+    @Override
+    public LongBinaryOperator concatenateOperator(long bytes_B) {
+        long[] windows = windowsOfXpow8N(bytes_B);
+        long start_B = this.init ^ this.canonize;
+        return (crc_A, crc_B) -> toValue(toRegister(crc_B) ^ multiply(toRegister(crc_A) ^ start_B, windows, 0));
+    }
+
+    @Override
+    public LongUnaryOperator crcOfZeroesOperator(long bytes) {
+        long[] windows = windowsOfXpow8N(bytes);
+        long canonize = this.canonize;
+        return start -> toValue(canonize ^ multiply(toRegister(start) ^ canonize, windows, 0));
+    }
+
+    /**
+     * Returns expected CRC value of {@code CRC(Message,CRC(Message))}
+     * when CRC is stored after the message. This value is fixed
+     * and does not depend on the message or CRC start value.
+     * This is also called <b>residue</b>.
+     */
+    @Override
+    public long getCrcOfCrc() {
+        return this.crcOfCrc;
+    }
+
+    /**
+     * Returns (x ** n mod P).
+     */
+    long XpowNInternal(long n) {
+        return multiplyByXpowN(this.one, n);
+    }
+
+    @Override
+    public long XpowN(long n) {
+        return toValue(XpowNInternal(n));
+    }
+
+    /**
+     * Returns ((a * x ** n) mod P), one table driven multiplication for each non zero hex digit of n.
+     */
+    private long multiplyByXpowN(long a, long n) {
+        long result = a;
+
+        for (int j = 0; n != 0; j++, n >>>= 4) {
+            int d = (int) n & 0xF;
+            if (d != 0) {
+                result = multiply(result, this.x_pow_n, (j * 15 + d - 1) << 5);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns ((a * x ** (8 * n)) mod P), taking the window tables from the cache
+     * when (8 * n) has more than one non zero hex digit.
+     */
+    private long multiplyByXpow8NCached(long a, long n) {
+        long exponent = n << 3;
+        if ((exponent >>> (Long.numberOfTrailingZeros(exponent) & ~3)) < 16) {
+            return multiplyByXpowN(a, exponent);
+        }
+        return multiply(a, this.xPow8NCache.get(n), 0);
+    }
+
+    /**
+     * Returns the window tables of (x ** (8 * n) mod P).
+     */
+    private long[] windowsOfXpow8N(long n) {
+        long[] windows = new long[32];
+        initWindows(multiplyByXpowN(this.one, n << 3), windows, 0);
+        return windows;
+    }
+
+    /**
+     * Returns ((a * b) mod P) where "a" and "b" are of degree <= (D-1).
+     */
+    private long multiply(long aa, long bb) {
+        long[] windows = new long[32];
+        initWindows(bb, windows, 0);
+        return multiply(aa, windows, 0);
+    }
+
+    /**
+     * Returns ((a * b) mod P) where "a" is of degree <= (D-1) and "table" holds the window tables of "b".
+     * The bits of "a" are processed 8 at a time, from the highest order term to the lowest (Horner's rule).
+     */
+    private long multiply(long a, long[] table, int offset) {
+        long[] reduce = this.reduce;
+        // align x ** 0 to bit 0 and skip the empty windows
+        long bits = a >>> (64 - this.degree);
+        long product = 0;
+        for (int shift = (this.degree - 1) & ~7; shift >= 0; shift -= 8) {
+            int c = (int) (bits >>> shift);
+            product = (product << 8) ^ reduce[(int) (product >>> 56)] ^ table[offset | 16 | ((c >>> 4) & 0xF)] ^ table[offset | (c & 0xF)];
+        }
+        return product;
+    }
+
+    /**
+     * Returns ((a * x) mod P).
+     */
+    private long multiplyByX(long a) {
+        return (a << 1) ^ this.normalize[(int) (a >>> 63)];
+    }
+
+    private long toRegister(long value) {
+        return value << (64 - this.degree);
+    }
+
+    private long toValue(long value) {
+        return value >>> (64 - this.degree);
+    }
+}
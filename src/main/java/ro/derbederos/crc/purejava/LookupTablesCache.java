@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of lookup tables and GF(2) state, shared by all the engines of a polynomial.
+ * <p>
+ * Entries are keyed by (width, poly, refIn, dimension), so models that differ only in init or xorOut share them.
+ * Lookups never block. When the cache grows over {@link #MAX_ENTRIES} the oldest entries are evicted.
+ * The cached arrays are shared and must never be modified after they are built.
+ */
+final class LookupTablesCache {
+
+    static final int MAX_ENTRIES = 128;
+
+    private static final ConcurrentHashMap<Key, Object> cache = new ConcurrentHashMap<>();
+    private static final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    // returned to the engines holding no two dimensional tables, e.g. the flat and the nibble ones, instead of
+    // caching an empty entry for each of their polynomials
+    private static final byte[][] NO_TABLES_8 = new byte[0][];
+    private static final char[][] NO_TABLES_16 = new char[0][];
+    private static final int[][] NO_TABLES_32 = new int[0][];
+    private static final long[][] NO_TABLES_64 = new long[0][];
+
+    private LookupTablesCache() {
+    }
+
+    /**
+     * Returns the lookup tables for a polynomial aligned to the 32 bit register (reflected when refIn is true).
+     */
+    static int[][] getLookupTables32(int width, int poly, boolean refIn, int dimension) {
+        if (dimension == 0) {
+            return NO_TABLES_32;
+        }
+        Key key = new Key(Kind.TABLES_32, width, poly, refIn, dimension);
+        return get(key, () -> refIn ?
+                CRC32Util.initLookupTablesReflected(poly, dimension) :
+                CRC32Util.initLookupTablesUnreflected(poly, dimension));
+    }
+
+    /**
+     * Returns the lookup tables for a polynomial aligned to the 16 bit register (reflected when refIn is true).
+     */
+    static char[][] getLookupTables16(int width, int poly, boolean refIn, int dimension) {
+        if (dimension == 0) {
+            return NO_TABLES_16;
+        }
+        Key key = new Key(Kind.TABLES_16, width, poly, refIn, dimension);
+        return get(key, () -> refIn ?
+                CRC32Util.narrowLookupTables16(CRC32Util.initLookupTablesReflected(poly, dimension), true) :
+                CRC32Util.narrowLookupTables16(CRC32Util.initLookupTablesUnreflected(poly << 16, dimension), false));
+    }
+
+    /**
+     * Returns the lookup tables for a polynomial aligned to the 8 bit register (reflected when refIn is true).
+     */
+    static byte[][] getLookupTables8(int width, int poly, boolean refIn, int dimension) {
+        if (dimension == 0) {
+            return NO_TABLES_8;
+        }
+        Key key = new Key(Kind.TABLES_8, width, poly, refIn, dimension);
+        return get(key, () -> refIn ?
+                CRC32Util.narrowLookupTables8(CRC32Util.initLookupTablesReflected(poly, dimension), true) :
+                CRC32Util.narrowLookupTables8(CRC32Util.initLookupTablesUnreflected(poly << 24, dimension), false));
+    }
+
+    /**
+     * Returns the lookup tables for a polynomial aligned to the 64 bit register (reflected when refIn is true).
+     */
+    static long[][] getLookupTables64(int width, long poly, boolean refIn, int dimension) {
+        if (dimension == 0) {
+            return NO_TABLES_64;
+        }
+        Key key = new Key(Kind.TABLES_64, width, poly, refIn, dimension);
+        return get(key, () -> refIn ?
+                CRC64Util.initLookupTablesReflected(poly, dimension) :
+                CRC64Util.initLookupTablesUnreflected(poly, dimension));
+    }
+
+    /**
+     * Returns the lookup tables for a polynomial aligned to the 32 bit register, flattened in a single array.
+     * Table {@code k} starts at index {@code k << 8}.
+     */
+    static int[] getFlatLookupTables32(int width, int poly, boolean refIn, int dimension) {
+        Key key = new Key(Kind.FLAT_TABLES_32, width, poly, refIn, dimension);
+        return get(key, () -> {
+            // built here, not taken from the cache, so that the two dimensional copy is not kept alive
+            int[][] lookupTables = refIn ?
+                    CRC32Util.initLookupTablesReflected(poly, dimension) :
+                    CRC32Util.initLookupTablesUnreflected(poly, dimension);
+            int[] flatLookupTables = new int[dimension << 8];
+            for (int k = 0; k < dimension; k++) {
+                System.arraycopy(lookupTables[k], 0, flatLookupTables, k << 8, 0x100);
+            }
+            return flatLookupTables;
+        });
+    }
+
+    /**
+     * Returns the lookup tables for a polynomial aligned to the 64 bit register, flattened in a single array.
+     * Table {@code k} starts at index {@code k << 8}.
+     */
+    static long[] getFlatLookupTables64(int width, long poly, boolean refIn, int dimension) {
+        Key key = new Key(Kind.FLAT_TABLES_64, width, poly, refIn, dimension);
+        return get(key, () -> {
+            // built here, not taken from the cache, so that the two dimensional copy is not kept alive
+            long[][] lookupTables = refIn ?
+                    CRC64Util.initLookupTablesReflected(poly, dimension) :
+                    CRC64Util.initLookupTablesUnreflected(poly, dimension);
+            long[] flatLookupTables = new long[dimension << 8];
+            for (int k = 0; k < dimension; k++) {
+                System.arraycopy(lookupTables[k], 0, flatLookupTables, k << 8, 0x100);
+            }
+            return flatLookupTables;
+        });
+    }
+
+    /**
+     * Returns the two 16 entries nibble tables for a polynomial aligned to the 32 bit register, flattened in a single array.
+     */
+    static int[] getNibbleLookupTables32(int width, int poly, boolean refIn) {
+        Key key = new Key(Kind.NIBBLE_TABLES_32, width, poly, refIn, 2);
+        return get(key, () -> CRC32Util.initNibbleLookupTables(poly, refIn));
+    }
+
+    /**
+     * Returns the 16 entries nibble table for a polynomial aligned to the 64 bit register.
+     */
+    static long[] getNibbleLookupTable64(int width, long poly, boolean refIn) {
+        Key key = new Key(Kind.NIBBLE_TABLES_64, width, poly, refIn, 1);
+        return get(key, () -> CRC64Util.initNibbleLookupTable(poly, refIn));
+    }
+
+    /**
+     * Returns the (x ** n mod P) tables of a polynomial of the given degree (reflected when refIn is true).
+     */
+    static int[] getXPowN32(int degree, int poly, boolean refIn, Supplier<int[]> supplier) {
+        return get(new Key(Kind.GF_32, degree, poly, refIn, 0), supplier);
+    }
+
+    /**
+     * Returns the (x ** n mod P) tables of a polynomial of the given degree (reflected when refIn is true).
+     */
+    static long[] getXPowN64(int degree, long poly, boolean refIn, Supplier<long[]> supplier) {
+        return get(new Key(Kind.GF_64, degree, poly, refIn, 0), supplier);
+    }
+
+    static int size() {
+        return cache.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T get(Key key, Supplier<T> supplier) {
+        Object value = cache.get(key);
+        if (value == null) {
+            // computed outside of the map locks, two threads may build the same value, only one is kept
+            value = supplier.get();
+            Object previous = cache.putIfAbsent(key, value);
+            if (previous != null) {
+                return (T) previous;
+            }
+            insertionOrder.add(key);
+            while (cache.size() > MAX_ENTRIES) {
+                Key eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                cache.remove(eldest);
+            }
+        }
+        return (T) value;
+    }
+
+    private enum Kind {
+        TABLES_8, TABLES_16, TABLES_32, TABLES_64, FLAT_TABLES_32, FLAT_TABLES_64,
+        NIBBLE_TABLES_32, NIBBLE_TABLES_64, GF_32, GF_64
+    }
+
+    private static final class Key {
+        private final Kind kind;
+        private final int width;
+        private final long poly;
+        private final boolean refIn;
+        private final int dimension;
+
+        Key(Kind kind, int width, long poly, boolean refIn, int dimension) {
+            this.kind = kind;
+            this.width = width;
+            this.poly = poly;
+            this.refIn = refIn;
+            this.dimension = dimension;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return kind == key.kind &&
+                    width == key.width &&
+                    poly == key.poly &&
+                    refIn == key.refIn &&
+                    dimension == key.dimension;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, width, poly, refIn, dimension);
+        }
+    }
+}
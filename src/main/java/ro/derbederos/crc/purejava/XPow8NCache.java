@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import java.util.function.LongFunction;
+
+/**
+ * Small LRU cache of the window tables of (x ** (8 * n) mod P), keyed by n.
+ * It turns a repeated multiplication by x ** (8 * n) into a single table driven multiplication.
+ */
+final class XPow8NCache<T> {
+
+    static final int SIZE = 8;
+
+    private final LongFunction<T> function;
+    private final long[] keys = new long[SIZE];
+    private final Object[] values = new Object[SIZE];
+    private int count;
+
+    XPow8NCache(LongFunction<T> function) {
+        this.function = function;
+    }
+
+    /**
+     * Returns the cached value for n, computing it when missing. The most recently used entry is kept first.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized T get(long n) {
+        int index = 0;
+        while (index < count && keys[index] != n) {
+            index++;
+        }
+        T value;
+        if (index < count) {
+            value = (T) values[index];
+        } else {
+            value = function.apply(n);
+            index = count < SIZE ? count++ : SIZE - 1;
+        }
+        System.arraycopy(keys, 0, keys, 1, index);
+        System.arraycopy(values, 0, values, 1, index);
+        keys[0] = n;
+        values[0] = value;
+        return value;
+    }
+}
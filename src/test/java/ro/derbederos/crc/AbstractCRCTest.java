@@ -20,6 +20,10 @@ import org.junit.Assert;
 import org.junit.Test;
 import ro.derbederos.crc.purejava.CRC64SlicingBy16;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import java.util.function.Function;
 import java.util.zip.Checksum;
@@ -109,6 +113,45 @@ public abstract class AbstractCRCTest {
         assertEquals(toHexString(crcExpected), toHexString(crcActual));
     }
 
+    @Test
+    public void testCRCValueUpdateBitsPartialBytes() {
+        long input = 0xFEDCBA9876543210L;
+        for (int bits = 0; bits <= 64; bits++) {
+            crc.reset();
+            for (int i = 0; i < bits; i++) {
+                crc.updateBits(input >>> (crcModel.getRefIn() ? i : bits - 1 - i), 1);
+            }
+            long crcExpected = crc.getValue();
+
+            crc.reset();
+            crc.updateBits(input, bits);
+
+            long crcActual = crc.getValue();
+            assertEquals("at bits " + bits, toHexString(crcExpected), toHexString(crcActual));
+        }
+    }
+
+    @Test
+    public void testCRCValueUpdateBitsOffset() {
+        for (int bitOffset = 0; bitOffset < 24; bitOffset++) {
+            for (int bitCount : new int[]{0, 1, 5, 8, 13, 64, 203}) {
+                crc.reset();
+                for (int i = bitOffset; i < bitOffset + bitCount; i++) {
+                    int shift = crcModel.getRefIn() ? i & 0x7 : 7 - (i & 0x7);
+                    crc.updateBits(testInputLong[i >>> 3] >>> shift, 1);
+                }
+                long crcExpected = crc.getValue();
+
+                crc.reset();
+                crc.updateBits(testInputLong, bitOffset, (long) bitCount);
+
+                long crcActual = crc.getValue();
+                String message = "at bitOffset " + bitOffset + ", bitCount " + bitCount;
+                assertEquals(message, toHexString(crcExpected), toHexString(crcActual));
+            }
+        }
+    }
+
     @Test
     public void testCRCValueLongAndUnaligned() {
         CRC checksumSliceBy16 = new CRC64SlicingBy16(crcModel);
@@ -122,6 +165,100 @@ public abstract class AbstractCRCTest {
         }
     }
 
+    @Test
+    public void testCRCValueByteBuffer() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (boolean direct : new boolean[]{false, true}) {
+                ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(testInputLong.length) :
+                        ByteBuffer.allocate(testInputLong.length);
+                buffer.order(order).put(testInputLong);
+                for (int i = 0; i < 16; i++) {
+                    int length = testInputLong.length - i - i % 5;
+                    long crcExpected = computeCrc(crc, testInputLong, i, length);
+
+                    ((Buffer) buffer).limit(i + length).position(i);
+                    crc.reset();
+                    crc.update(buffer);
+                    long crcActual = crc.getValue();
+                    String message = order + (direct ? " direct" : " heap") + " at iteration " + i;
+                    assertEquals(message, toHexString(crcExpected), toHexString(crcActual));
+                    assertEquals(message, buffer.limit(), buffer.position());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCRCValueUpdatePrimitives() {
+        long value = 0xFEDCBA9876543210L;
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (int i = 0; i < 64; i += 7) {
+                long v = value >>> i | value << -i;
+                ByteBuffer buffer = ByteBuffer.allocate(testInput.length + 14).order(order);
+                buffer.put(testInput).putShort((short) v).putInt((int) v).putLong(v);
+                long crcExpected = computeCrc(crc, buffer.array(), 0, buffer.capacity());
+
+                crc.reset();
+                crc.update(testInput, 0, testInput.length);
+                crc.updateShort((short) v, order);
+                crc.updateInt((int) v, order);
+                crc.updateLong(v, order);
+                long crcActual = crc.getValue();
+                assertEquals(order + " at rotation " + i, toHexString(crcExpected), toHexString(crcActual));
+            }
+        }
+    }
+
+    @Test
+    public void testCRCValueUpdatePrimitiveArrays() {
+        ByteBuffer source = ByteBuffer.wrap(testInputLong);
+        long[] longs = new long[testInputLong.length / 8];
+        int[] ints = new int[testInputLong.length / 4];
+        short[] shorts = new short[testInputLong.length / 2];
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            source.order(order);
+            source.asLongBuffer().get(longs);
+            source.asIntBuffer().get(ints);
+            source.asShortBuffer().get(shorts);
+            for (int i = 0; i < 9; i++) {
+                crc.reset();
+                crc.update(longs, i, longs.length - 2 * i, order);
+                assertEquals(order + " long[] at offset " + i,
+                        toHexString(computeCrc(crc, testInputLong, 8 * i, 8 * (longs.length - 2 * i))),
+                        toHexString(crc.getValue()));
+
+                crc.reset();
+                crc.update(ints, i, ints.length - 2 * i - i % 2, order);
+                assertEquals(order + " int[] at offset " + i,
+                        toHexString(computeCrc(crc, testInputLong, 4 * i, 4 * (ints.length - 2 * i - i % 2))),
+                        toHexString(crc.getValue()));
+
+                crc.reset();
+                crc.update(shorts, i, shorts.length - 2 * i - i % 4, order);
+                assertEquals(order + " short[] at offset " + i,
+                        toHexString(computeCrc(crc, testInputLong, 2 * i, 2 * (shorts.length - 2 * i - i % 4))),
+                        toHexString(crc.getValue()));
+            }
+        }
+    }
+
+    @Test
+    public void testCRCValueUpdateUTF8() {
+        String text = "ascii, \u00e9\u00e8 latin, \u20ac\u4e2d\u6587 bmp, \ud83d\ude00\ud834\udd1e supplementary, " +
+                "unpaired \ud83d and \ude00, high surrogate at the end \ud83d";
+        for (int start = 0; start < 12; start++) {
+            for (int end = text.length() - 12; end <= text.length(); end++) {
+                byte[] bytes = text.substring(start, end).getBytes(StandardCharsets.UTF_8);
+                long crcExpected = computeCrc(crc, bytes, 0, bytes.length);
+
+                crc.reset();
+                crc.updateUTF8(new StringBuilder(text), start, end);
+                assertEquals("at start " + start + ", end " + end, toHexString(crcExpected),
+                        toHexString(crc.getValue()));
+            }
+        }
+    }
+
     @Test
     public void testModelSelfCheckResidue() {
         crc.update(testInput, 0, testInput.length);
@@ -167,6 +304,56 @@ public abstract class AbstractCRCTest {
         }
     }
 
+    @Test
+    public void testConcatenateOperator() {
+        long crcExpected = computeCrc(crc, testInputLong, 0, testInputLong.length);
+
+        for (int i = 0; i < testInputLong.length; i++) {
+            int bytesB = testInputLong.length - i;
+            long crcA = computeCrc(crc, testInputLong, 0, i);
+            long crcB = computeCrc(crc, testInputLong, i, bytesB);
+            long crcActual = crc.concatenateOperator(bytesB).applyAsLong(crcA, crcB);
+
+            assertEquals("at iteration " + i, toHexString(crcExpected), toHexString(crcActual));
+        }
+    }
+
+    @Test
+    public void testConcatenateZeroesRepeatedLengths() {
+        crc.update(testInputLong, 0, testInputLong.length);
+        long crcInitial = crc.getValue();
+        long[] crcOfZeroesExpected = new long[testInputLong.length + 1];
+        crcOfZeroesExpected[0] = crcInitial;
+        for (int i = 1; i <= testInputLong.length; i++) {
+            crc.update(0);
+            crcOfZeroesExpected[i] = crc.getValue();
+        }
+
+        // every length is used several times, interleaved with more lengths than the cache can hold
+        for (int round = 0; round < 3; round++) {
+            for (int bytes = 0; bytes <= testInputLong.length; bytes += 7) {
+                long crcOfZeroesActual = crc.concatenateZeroes(crcInitial, bytes);
+                assertEquals("at length " + bytes, toHexString(crcOfZeroesExpected[bytes]), toHexString(crcOfZeroesActual));
+                crcOfZeroesActual = crc.concatenateZeroes(crcInitial, bytes);
+                assertEquals("at length " + bytes, toHexString(crcOfZeroesExpected[bytes]), toHexString(crcOfZeroesActual));
+            }
+        }
+    }
+
+    @Test
+    public void testConcatenateZeroesOperator() {
+        crc.update(testInputLong, 0, testInputLong.length);
+        long crcInitial = crc.getValue();
+        for (int i = 0; i < 1000; i++) {
+            crc.update(0);
+        }
+        long crcOfZeroesExpected = crc.getValue();
+
+        long crcOfZeroesActual = crc.concatenateZeroesOperator(1000).applyAsLong(crcInitial);
+
+        Assert.assertEquals(toHexString(crcOfZeroesExpected), toHexString(crcOfZeroesActual));
+    }
+
     @Test
     public void testConcatenateZeroes() {
         crc.update(testInputLong, 0, testInputLong.length);
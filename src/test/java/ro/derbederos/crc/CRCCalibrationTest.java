@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.Checksum;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class CRCCalibrationTest {
+
+    private static final byte[] testInput = "123456789".getBytes();
+
+    // a short calibration, the choices do not matter, only that they are valid
+    private static final CRCCalibration calibration = CRCCalibration.calibrate(16, 16, 100_000L, 100_000L);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCalibratedEnginesComputeTheCheckValue() {
+        for (CRCModel crcModel : CRCFactory.getDefinedModels()) {
+            if (crcModel.getWidth() > 64) {
+                continue;
+            }
+            for (boolean smallInputs : new boolean[]{true, false}) {
+                Checksum crc = calibration.newChecksum(crcModel, smallInputs);
+                crc.update(testInput, 0, testInput.length);
+                assertEquals(crcModel.getName(), toHexString(crcModel.getCheck()), toHexString(crc.getValue()));
+            }
+        }
+    }
+
+    @Test
+    public void testEngineNamePerWidth() {
+        assertNotNull(calibration.getEngineName(5, true));
+        assertNotNull(calibration.getEngineName(64, false));
+        assertNull(calibration.getEngineName(82, false));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("calibration/crc.properties");
+        calibration.save(file);
+        CRCCalibration loaded = CRCCalibration.load(file);
+        assertNotNull(loaded);
+        for (int width = 1; width <= 64; width++) {
+            assertEquals(calibration.getEngineName(width, true), loaded.getEngineName(width, true));
+            assertEquals(calibration.getEngineName(width, false), loaded.getEngineName(width, false));
+        }
+    }
+
+    @Test
+    public void testLoadMissingFile() throws Exception {
+        assertNull(CRCCalibration.load(folder.getRoot().toPath().resolve("missing.properties")));
+    }
+
+    @Test
+    public void testLoadFromAnotherMachine() throws Exception {
+        Path file = folder.newFile("other.properties").toPath();
+        calibration.save(file);
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        content = content.replaceAll("(?m)^fingerprint=.*$", "fingerprint=sparc");
+        Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+        assertNull(CRCCalibration.load(file));
+    }
+
+    @Test
+    public void testLoadFromAnotherCpuModel() throws Exception {
+        Path cpuInfo = Paths.get("/proc/cpuinfo");
+        assumeTrue(Files.isReadable(cpuInfo));
+        Optional<String> cpuModel;
+        try (Stream<String> lines = Files.lines(cpuInfo, StandardCharsets.ISO_8859_1)) {
+            cpuModel = lines.filter(line -> line.startsWith("model name") && line.indexOf(':') > 0)
+                    .map(line -> line.substring(line.indexOf(':') + 1).trim())
+                    .findFirst();
+        }
+        assumeTrue(cpuModel.isPresent());
+
+        // same JVM and cpu count, only the cpu model differs
+        Path file = folder.newFile("other-cpu.properties").toPath();
+        calibration.save(file);
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        String fingerprint = properties.getProperty("fingerprint");
+        assertTrue(fingerprint, fingerprint.contains(cpuModel.get()));
+        properties.setProperty("fingerprint", fingerprint.replace(cpuModel.get(), "another cpu"));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, null);
+        }
+        assertNull(CRCCalibration.load(file));
+    }
+}
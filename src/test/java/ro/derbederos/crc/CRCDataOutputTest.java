@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class CRCDataOutputTest {
+
+    private final CRCModel crcModel;
+
+    public CRCDataOutputTest(CRCModel crcModel) {
+        this.crcModel = crcModel;
+    }
+
+    @Test
+    public void testSameAsDataOutputStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeRecord(new DataOutputStream(bytes));
+        CRC crcExpected = new CRC64SlicingBy16(crcModel);
+        crcExpected.update(bytes.toByteArray());
+
+        CRCDataOutput output = new CRCDataOutput(new CRC64SlicingBy16(crcModel));
+        writeRecord(output);
+
+        assertEquals(toHexString(crcExpected.getValue()), toHexString(output.getCRC().getValue()));
+    }
+
+    @Test
+    public void testLittleEndian() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 2 + 4 + 8 + 4 + 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) -2).putChar('\u20ac').putInt(0x76543210).putLong(0xFEDCBA9876543210L)
+                .putFloat(1.5f).putDouble(-2.25);
+        CRC crcExpected = new CRC64SlicingBy16(crcModel);
+        crcExpected.update(buffer.array());
+
+        CRCDataOutput output = new CRCDataOutput(new CRC64SlicingBy16(crcModel), ByteOrder.LITTLE_ENDIAN);
+        output.writeShort(-2);
+        output.writeChar('\u20ac');
+        output.writeInt(0x76543210);
+        output.writeLong(0xFEDCBA9876543210L);
+        output.writeFloat(1.5f);
+        output.writeDouble(-2.25);
+
+        assertEquals(toHexString(crcExpected.getValue()), toHexString(output.getCRC().getValue()));
+    }
+
+    @Test(expected = UTFDataFormatException.class)
+    public void testWriteUTFTooLong() throws IOException {
+        char[] chars = new char[0x8000];
+        Arrays.fill(chars, '\u00e9');
+        new CRCDataOutput(new CRC64SlicingBy16(crcModel)).writeUTF(new String(chars));
+    }
+
+    private static void writeRecord(DataOutput output) throws IOException {
+        output.write(0x1FF);
+        output.write(new byte[]{1, 2, 3, 4, 5}, 1, 3);
+        output.writeBoolean(true);
+        output.writeByte(-1);
+        output.writeShort(0x12345);
+        output.writeChar('\u20ac');
+        output.writeInt(0x76543210);
+        output.writeLong(0xFEDCBA9876543210L);
+        output.writeFloat(1.5f);
+        output.writeDouble(-2.25);
+        output.writeBytes("bytes \u0100");
+        output.writeChars("chars \u20ac");
+        output.writeUTF("utf \u0000 \u00e9 \u20ac \ud83d\ude00");
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return Arrays.stream(CRCFactory.getDefinedModels())
+                .filter(crcModel -> crcModel.getWidth() <= 64)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.purejava.CRC64Engine;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(Parameterized.class)
+public class CRCEngineTest {
+
+    private static final byte[] testInput = "123456789".getBytes();
+    private static final byte[] testInputLong = new byte[4096];
+
+    static {
+        long SEED = 0x12fed1a214ecbd00L;
+        Random r = new Random(SEED);
+        r.nextBytes(testInputLong);
+    }
+
+    private final CRCModel crcModel;
+    private final CRCEngine engine;
+
+    public CRCEngineTest(String engineName, CRCModel crcModel, Function<CRCModel, CRCEngine> supplier) {
+        this.crcModel = crcModel;
+        this.engine = supplier.apply(crcModel);
+    }
+
+    @Parameterized.Parameters(name = "{0} {1}")
+    public static List<Object[]> getCRCParameters() {
+        return Arrays.stream(CRCFactory.getDefinedModels())
+                .filter(crcModel -> crcModel.getWidth() <= 64)
+                .flatMap(crcModel -> Arrays.stream(new Object[][]{
+                        {"CRC64Engine", crcModel, (Function<CRCModel, CRCEngine>) CRC64Engine::new},
+                        {"CRCFactory", crcModel, (Function<CRCModel, CRCEngine>) CRCFactory::getEngine},
+                        {"Specialized", crcModel, (Function<CRCModel, CRCEngine>) CRCFactory::getSpecializedEngine}}))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testCRCValue() {
+        assertEquals(toHexString(crcModel.getCheck()), toHexString(engine.compute(testInput, 0, testInput.length)));
+    }
+
+    @Test
+    public void testCRCValueUpdateOneByOne() {
+        long state = engine.init();
+        for (byte inputByte : testInput) {
+            state = engine.update(state, inputByte);
+        }
+        assertEquals(toHexString(crcModel.getCheck()), toHexString(engine.finish(state)));
+    }
+
+    @Test
+    public void testCRCValueLongAndUnaligned() {
+        CRC crc = new CRC64SlicingBy16(crcModel);
+        for (int offset = 0; offset < 16; offset++) {
+            int len = testInputLong.length - offset - offset % 5;
+            crc.reset();
+            crc.update(testInputLong, offset, len);
+            long crcActual = engine.compute(testInputLong, offset, len);
+            assertEquals("at offset " + offset, toHexString(crc.getValue()), toHexString(crcActual));
+
+            for (boolean direct : new boolean[]{false, true}) {
+                ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(testInputLong.length) :
+                        ByteBuffer.allocate(testInputLong.length);
+                buffer.put(testInputLong);
+                ((Buffer) buffer).limit(offset + len).position(offset);
+                crcActual = engine.finish(engine.update(engine.init(), buffer));
+                assertEquals("at offset " + offset, toHexString(crc.getValue()), toHexString(crcActual));
+                assertEquals(buffer.limit(), buffer.position());
+            }
+        }
+    }
+
+    @Test
+    public void testResume() {
+        long crcA = engine.compute(testInputLong, 0, 1000);
+        long state = engine.resume(crcA);
+        state = engine.update(state, testInputLong, 1000, testInputLong.length - 1000);
+        long crcExpected = engine.compute(testInputLong, 0, testInputLong.length);
+        assertEquals(toHexString(crcExpected), toHexString(engine.finish(state)));
+    }
+
+    @Test
+    public void testSharedBetweenThreads() {
+        long crcExpected = engine.compute(testInputLong, 0, testInputLong.length);
+        IntStream.range(0, 64).parallel().forEach(i -> {
+            long state = engine.init();
+            for (int offset = 0; offset < testInputLong.length; offset += 512) {
+                state = engine.update(state, testInputLong, offset, 512);
+            }
+            assertEquals(toHexString(crcExpected), toHexString(engine.finish(state)));
+        });
+    }
+
+    @Test
+    public void testFactoryReturnsSameEngine() {
+        assertSame(CRCFactory.getEngine(crcModel), CRCFactory.getEngine(crcModel.getName()));
+    }
+}
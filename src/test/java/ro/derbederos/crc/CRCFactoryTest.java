@@ -16,16 +16,29 @@
 
 package ro.derbederos.crc;
 
-import org.junit.Ignore;
 import org.junit.Test;
+import ro.derbederos.crc.clmul.CRC64CLMul;
+import ro.derbederos.crc.generated.GeneratedCRCs;
+import ro.derbederos.crc.purejava.CRC16;
+import ro.derbederos.crc.purejava.CRC32Intrinsic;
+import ro.derbederos.crc.purejava.CRC32Nibble;
+import ro.derbederos.crc.purejava.CRC64EngineSpecializer;
+import ro.derbederos.crc.purejava.CRC64Nibble;
+import ro.derbederos.crc.purejava.CRC8;
 import ro.derbederos.crc.purejava.crc32.CRC32_JAMCRC;
 
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.zip.Checksum;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 public class CRCFactoryTest {
 
@@ -42,10 +55,32 @@ public class CRCFactoryTest {
     }
 
     @Test
-    @Ignore //FIXME support for alliases not implemented yet
     public void testGetModelByAlias() {
         CRCModel crcModel = CRCFactory.getModel("PKZIP");
-        assertNotNull(crcModel);
+        assertSame(CRCFactory.CRC32, crcModel);
+        assertSame(CRCFactory.getModel("XMODEM"), CRCFactory.getModel("CRC-16/XMODEM"));
+    }
+
+    @Test
+    public void testGetModelIgnoresCase() {
+        assertSame(CRCFactory.getModel("CRC-32/BZIP2"), CRCFactory.getModel("crc-32/bzip2"));
+        assertSame(CRCFactory.CRC32C, CRCFactory.getModel("crc-32/castagnoli"));
+    }
+
+    @Test
+    public void testGetUndefinedModel() {
+        assertNull(CRCFactory.getModel("CRC-33/UNDEFINED"));
+        assertNull(CRCFactory.getModel("CRC-82/DARC"));
+    }
+
+    @Test
+    public void testGetNullModel() {
+        assertNull(CRCFactory.getModel(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetCrcOfNullModelName() {
+        CRCFactory.getCRC((String) null);
     }
 
     @Test
@@ -71,4 +106,64 @@ public class CRCFactoryTest {
         Checksum crc = CRCFactory.getCRC("JAMCRC");
         assertTrue(crc instanceof CRC32_JAMCRC);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetGeneratedClasses() {
+        for (Map.Entry<String, Supplier<Checksum>> entry : GeneratedCRCs.getFactories().entrySet()) {
+            Class<?> generatedClass = entry.getValue().get().getClass();
+            CRCModel model = CRCFactory.getModel(entry.getKey());
+            assertSame(generatedClass, CRCFactory.getCRC(model).getClass());
+            assertSame(generatedClass, CRCFactory.getLargeInputsFactory(model).get().getClass());
+        }
+    }
+
+    @Test
+    public void testGetIntrinsicForCrc32CPolynomial() {
+        CRCModel crc32C = CRCFactory.CRC32C;
+        CRCModel model = new CRCModel("CRC-32C/INIT-0", 32, crc32C.getPoly(), 0, true, true, 0, 0, 0);
+        Checksum crc = CRCFactory.getCRC(model);
+        assertTrue(crc instanceof CRC32Intrinsic);
+    }
+
+    @Test
+    public void testGetNarrowEngineByWidth() {
+        CRCModel crc8 = CRCFactory.getModel("CRC-8/MAXIM");
+        CRCModel crc16 = CRCFactory.getModel("CRC-16/DNP");
+        assertTrue(CRCFactory.defaultLargeInputsFactory(crc8, false).get() instanceof CRC8);
+        assertTrue(CRCFactory.defaultLargeInputsFactory(crc16, false).get() instanceof CRC16);
+    }
+
+    @Test
+    public void testGetNarrowEngineBeforeCLMulEngine() {
+        CRCModel crc8 = CRCFactory.getModel("CRC-8/MAXIM");
+        CRCModel crc16 = CRCFactory.getModel("CRC-16/DNP");
+        assertTrue(CRCFactory.defaultLargeInputsFactory(crc8, true).get() instanceof CRC8);
+        assertTrue(CRCFactory.defaultLargeInputsFactory(crc16, true).get() instanceof CRC16);
+    }
+
+    @Test
+    public void testGetCLMulEngineForWideModels() {
+        assumeTrue(CRC64CLMul.isSupported());
+        CRCModel crc32 = CRCFactory.getModel("CRC-32/AUTOSAR");
+        CRCModel crc64 = CRCFactory.getModel("CRC-64/GO-ISO");
+        assertTrue(CRCFactory.defaultLargeInputsFactory(crc32, true).get() instanceof CRC64CLMul);
+        assertTrue(CRCFactory.defaultLargeInputsFactory(crc64, true).get() instanceof CRC64CLMul);
+    }
+
+    @Test
+    public void testGetMemoryConstrained() {
+        CRCFactory.SelectionPolicy policy = CRCFactory.SelectionPolicy.MEMORY_CONSTRAINED;
+        assertTrue(CRCFactory.getCRC("CRC-16/DNP", policy) instanceof CRC32Nibble);
+        assertTrue(CRCFactory.getCRC("CRC-64/XZ", policy) instanceof CRC64Nibble);
+        assertTrue(CRCFactory.getCRC("CRC-32", policy) instanceof java.util.zip.CRC32);
+    }
+
+    @Test
+    public void testSpecializedEngineClassPerModel() {
+        assumeTrue(CRC64EngineSpecializer.isSupported());
+        CRCEngine engine = CRCFactory.getSpecializedEngine(CRCFactory.getModel("CRC-64/XZ"));
+        CRCEngine other = CRCFactory.getSpecializedEngine(CRCFactory.getModel("CRC-32/BZIP2"));
+        assertSame(engine, CRCFactory.getSpecializedEngine(CRCFactory.getModel("CRC-64/XZ")));
+        assertNotSame(engine.getClass(), other.getClass());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Checksum;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class FileCRCTest {
+    private static final byte[] testInput = new byte[100003];
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @ClassRule
+    public static final TemporaryFolder folder = new TemporaryFolder();
+
+    private static Path file;
+    private static Path emptyFile;
+
+    private final CRCModel crcModel;
+
+    public FileCRCTest(CRCModel crcModel) {
+        this.crcModel = crcModel;
+    }
+
+    @BeforeClass
+    public static void createFiles() throws IOException {
+        new Random(0x12fed1a214ecbd00L).nextBytes(testInput);
+        file = folder.newFile().toPath();
+        Files.write(file, testInput);
+        emptyFile = folder.newFile().toPath();
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testMemoryMapped() throws IOException {
+        for (int windowSize : new int[]{1009, 4096, 65536, testInput.length, FileCRC.DEFAULT_WINDOW_SIZE}) {
+            FileCRC fileCRC = new FileCRC(crcModel, () -> CRCFactory.getCRC(crcModel), windowSize, pool, true);
+            assertEquals("window size " + windowSize, toHexString(computeSequential(0, testInput.length)),
+                    toHexString(fileCRC.compute(file)));
+        }
+    }
+
+    @Test
+    public void testSequentialRead() throws IOException {
+        FileCRC fileCRC = new FileCRC(crcModel, () -> CRCFactory.getCRC(crcModel), 4096, pool, false);
+        assertEquals(toHexString(computeSequential(0, testInput.length)), toHexString(fileCRC.compute(file)));
+    }
+
+    @Test
+    public void testRegion() throws IOException {
+        FileCRC fileCRC = new FileCRC(crcModel, () -> CRCFactory.getCRC(crcModel), 1009, pool, true);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertEquals(toHexString(computeSequential(17, 50001)), toHexString(fileCRC.compute(channel, 17, 50001)));
+        }
+    }
+
+    @Test
+    public void testOtherEngine() throws IOException {
+        FileCRC fileCRC = new FileCRC(crcModel, () -> new CRC64SlicingBy16(crcModel), 1009, pool, true);
+        assertEquals(toHexString(computeSequential(0, testInput.length)), toHexString(fileCRC.compute(file)));
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        assertEquals(toHexString(computeSequential(0, 0)), toHexString(new FileCRC(crcModel).compute(emptyFile)));
+        FileCRC fileCRC = new FileCRC(crcModel, () -> CRCFactory.getCRC(crcModel), 4096, pool, false);
+        assertEquals(toHexString(computeSequential(0, 0)), toHexString(fileCRC.compute(emptyFile)));
+    }
+
+    private long computeSequential(int off, int len) {
+        Checksum checksum = CRCFactory.getCRC(crcModel);
+        checksum.update(testInput, off, len);
+        return checksum.getValue();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return Arrays.asList(CRCFactory.getDefinedModels());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.purejava.CRC64;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class HybridCRCTest extends AbstractCRCTest {
+
+    private static final int THRESHOLD = 16;
+
+    public HybridCRCTest(CRCModel crcModel) {
+        super(crcModel, model -> new HybridCRC(new CRC64(model), new CRC64SlicingBy16(model), THRESHOLD));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return Arrays.stream(CRCFactory.getDefinedModels())
+                .filter(crcModel -> crcModel.getWidth() <= 64)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSwitchingEnginesBetweenUpdates() {
+        byte[] input = new byte[1000];
+        new Random(crcModel.getWidth()).nextBytes(input);
+        CRC expected = new CRC64SlicingBy16(crcModel);
+        expected.update(input, 0, input.length);
+
+        CRC crc = new HybridCRC(new CRC64SlicingBy16(crcModel));
+        int offset = 0;
+        for (int length = 1; offset + length <= input.length; length = length * 3 % 97 + 1) {
+            if (length % 2 == 0) {
+                crc.update(input, offset, length);
+            } else {
+                crc.update(ByteBuffer.wrap(input, offset, length));
+            }
+            offset += length;
+        }
+        while (offset < input.length) {
+            crc.update(input[offset++]);
+        }
+        assertEquals(toHexString(expected.getValue()), toHexString(crc.getValue()));
+    }
+
+    @Test
+    public void testValuesShorterThanTheThresholdUseTheSmallInputsEngine() {
+        CRC small = new CRC64(crcModel);
+        CRC large = new CRC64SlicingBy16(crcModel);
+        CRC crc = new HybridCRC(small, large, THRESHOLD);
+        crc.updateShort((short) 0x1234, ByteOrder.BIG_ENDIAN);
+        crc.updateInt(0x12345678, ByteOrder.LITTLE_ENDIAN);
+        crc.updateLong(0x123456789ABCDEF0L, ByteOrder.BIG_ENDIAN);
+        assertEquals(toHexString(crc.getValue()), toHexString(small.getValue()));
+        assertEquals(toHexString(new CRC64(crcModel).getValue()), toHexString(large.getValue()));
+    }
+}
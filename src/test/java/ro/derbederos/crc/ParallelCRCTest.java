@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Checksum;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class ParallelCRCTest {
+    private static final byte[] testInput = new byte[10007];
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    static {
+        new Random(0x12fed1a214ecbd00L).nextBytes(testInput);
+    }
+
+    private final CRCModel crcModel;
+    private final ParallelCRC parallelCRC;
+
+    public ParallelCRCTest(CRCModel crcModel) {
+        this.crcModel = crcModel;
+        this.parallelCRC = new ParallelCRC(crcModel, 97, pool);
+    }
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testByteArray() {
+        for (int off = 0; off < 16; off++) {
+            int len = testInput.length - 2 * off;
+            assertEquals("at offset " + off, toHexString(computeSequential(off, len)),
+                    toHexString(parallelCRC.compute(testInput, off, len)));
+        }
+    }
+
+    @Test
+    public void testHeapByteBuffer() {
+        assertByteBuffer(ByteBuffer.wrap(testInput));
+    }
+
+    @Test
+    public void testDirectByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(testInput.length);
+        buffer.put(testInput);
+        assertByteBuffer(buffer);
+    }
+
+    @Test
+    public void testBelowThreshold() {
+        ParallelCRC sequential = new ParallelCRC(crcModel);
+        assertEquals(toHexString(computeSequential(0, testInput.length)), toHexString(sequential.compute(testInput)));
+    }
+
+    private void assertByteBuffer(ByteBuffer buffer) {
+        for (int off = 0; off < 16; off++) {
+            int len = testInput.length - 2 * off;
+            ((Buffer) buffer).limit(off + len);
+            ((Buffer) buffer).position(off);
+            assertEquals("at offset " + off, toHexString(computeSequential(off, len)),
+                    toHexString(parallelCRC.compute(buffer)));
+            assertEquals(off + len, buffer.position());
+            ((Buffer) buffer).clear();
+        }
+    }
+
+    private long computeSequential(int off, int len) {
+        Checksum checksum = CRCFactory.getCRC(crcModel);
+        checksum.update(testInput, off, len);
+        return checksum.getValue();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return Arrays.asList(CRCFactory.getDefinedModels());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Checksum;
+
+/**
+ * Measures a full {@code reset(); update(byte[], offset, length); getValue()} cycle.
+ * Run with {@code mvn -Pjmh clean verify}; the {@code jmh} profile adds the GC profiler to report the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractChecksumBenchmark {
+
+    public static final long SEED = 0x12fed1a214ecbd00L;
+
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216"})
+    public int length;
+
+    @Param({"0", "1", "3"})
+    public int offset;
+
+    private byte[] buffer;
+    private Checksum checksum;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        buffer = new byte[offset + length];
+        new Random(SEED).nextBytes(buffer);
+        checksum = createChecksum();
+    }
+
+    protected abstract Checksum createChecksum() throws ReflectiveOperationException;
+
+    @Benchmark
+    public long update() {
+        checksum.reset();
+        checksum.update(buffer, offset, length);
+        return checksum.getValue();
+    }
+}
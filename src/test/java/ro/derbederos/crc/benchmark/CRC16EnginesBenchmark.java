@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+
+import java.util.zip.Checksum;
+
+/**
+ * Compares the {@code purejava} engines having narrow tables, {@code CRC8} and {@code CRC16},
+ * with the {@code CRC32} engines, on reflected and unreflected models of widths 8 and 16.
+ * The family {@code narrow} picks {@code CRC8} or {@code CRC16} by the width of the model.
+ */
+public class CRC16EnginesBenchmark extends AbstractChecksumBenchmark {
+
+    @Param({"narrow", "CRC32"})
+    public String family;
+
+    @Param({"", "SlicingBy8", "SlicingBy16"})
+    public String variant;
+
+    @Param({"CRC-8", "CRC-8/MAXIM", "XMODEM", "MODBUS"})
+    public String model;
+
+    @Override
+    protected Checksum createChecksum() throws ReflectiveOperationException {
+        CRCModel crcModel = CRCFactory.getModel(model);
+        String prefix = family.equals("narrow") ? (crcModel.getWidth() <= 8 ? "CRC8" : "CRC16") : family;
+        return (Checksum) Class.forName("ro.derbederos.crc.purejava." + prefix + variant)
+                .getConstructor(CRCModel.class)
+                .newInstance(crcModel);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.purejava.CRC32Intrinsic;
+
+import java.util.zip.Checksum;
+
+/**
+ * Compares the {@code purejava} engines that support widths &lt;= 32,
+ * on reflected and unreflected models of widths 8, 16 and 32.
+ * The suffix {@code Oriented} picks the {@code Reflected} or {@code Unreflected} engine by the model.
+ * {@code CRC32Intrinsic} runs on {@link java.util.zip.CRC32}, so it only computes CRC-32 and JAMCRC, its setup
+ * fails for the other models, e.g. {@code -p engine=CRC32Intrinsic -p model=CRC-32,JAMCRC}.
+ */
+public class CRC32EnginesBenchmark extends AbstractChecksumBenchmark {
+
+    @Param({"CRC32", "CRC32Branchfree", "CRC32Nibble", "CRC32SlicingBy8", "CRC32SlicingBy16",
+            "CRC32SlicingBy8VarHandle", "CRC32SlicingBy16VarHandle", "CRC32SlicingBy8Flat", "CRC32SlicingBy16Flat",
+            "CRC32Oriented", "CRC32SlicingBy16FlatOriented", "CRC32Intrinsic"})
+    public String engine;
+
+    @Param({"CRC-8", "CRC-8/MAXIM", "XMODEM", "MODBUS", "CRC-32/BZIP2", "CRC-32", "JAMCRC"})
+    public String model;
+
+    @Override
+    protected Checksum createChecksum() throws ReflectiveOperationException {
+        CRCModel crcModel = CRCFactory.getModel(model);
+        if (engine.equals("CRC32Intrinsic")) {
+            return new CRC32Intrinsic(crcModel, java.util.zip.CRC32::new);
+        }
+        String className = engine.replace("Oriented", crcModel.getRefIn() ? "Reflected" : "Unreflected");
+        return (Checksum) Class.forName("ro.derbederos.crc.purejava." + className)
+                .getConstructor(CRCModel.class)
+                .newInstance(crcModel);
+    }
+}
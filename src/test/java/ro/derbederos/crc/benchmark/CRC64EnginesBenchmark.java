@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+
+import java.util.zip.Checksum;
+
+/**
+ * Compares the {@code purejava} engines that support widths &lt;= 64 and the native {@code clmul} engine,
+ * on reflected and unreflected models of widths 8, 16, 32 and 64.
+ * Engines outside the {@code purejava} package are given relative to {@code ro.derbederos.crc}.
+ * The suffix {@code Oriented} picks the {@code Reflected} or {@code Unreflected} engine by the model.
+ */
+public class CRC64EnginesBenchmark extends AbstractChecksumBenchmark {
+
+    @Param({"CRC64", "CRC64Nibble", "CRC64SlicingBy8", "CRC64SlicingBy16", "CRC64SlicingBy8VarHandle", "CRC64SlicingBy16VarHandle",
+            "CRC64SlicingBy8Flat", "CRC64SlicingBy16Flat", "CRC64InterleavedWordByWord", "clmul.CRC64CLMul",
+            "CRC64Oriented", "CRC64SlicingBy16FlatOriented"})
+    public String engine;
+
+    @Param({"CRC-8", "CRC-8/MAXIM", "XMODEM", "MODBUS", "CRC-32/BZIP2", "CRC-32", "CRC-64/WE", "CRC-64/XZ"})
+    public String model;
+
+    @Override
+    protected Checksum createChecksum() throws ReflectiveOperationException {
+        CRCModel crcModel = CRCFactory.getModel(model);
+        String className = engine.replace("Oriented", crcModel.getRefIn() ? "Reflected" : "Unreflected");
+        if (className.indexOf('.') < 0) {
+            className = "purejava." + className;
+        }
+        return (Checksum) Class.forName("ro.derbederos.crc." + className)
+                .getConstructor(CRCModel.class)
+                .newInstance(crcModel);
+    }
+}
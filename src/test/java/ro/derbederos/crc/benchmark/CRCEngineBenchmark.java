@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.derbederos.crc.CRCEngine;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.purejava.CRC64Engine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static ro.derbederos.crc.benchmark.AbstractChecksumBenchmark.SEED;
+
+/**
+ * Measures a full {@code init(); update(state, byte[], 0, length); finish(state)} cycle of the stateless engines:
+ * the generic slicing-by-16 engine, the one specialized per model in a hidden class and the one of the factory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CRCEngineBenchmark {
+
+    @Param({"generic", "specialized", "factory"})
+    public String engine;
+
+    @Param({"CRC-8", "XMODEM", "CRC-32/BZIP2", "CRC-32", "CRC-64/XZ"})
+    public String model;
+
+    @Param({"16", "256", "4096", "65536"})
+    public int length;
+
+    private byte[] buffer;
+    private CRCEngine crcEngine;
+
+    @Setup
+    public void setup() {
+        buffer = new byte[length];
+        new Random(SEED).nextBytes(buffer);
+        CRCModel crcModel = CRCFactory.getModel(model);
+        switch (engine) {
+            case "generic":
+                crcEngine = new CRC64Engine(crcModel);
+                break;
+            case "specialized":
+                crcEngine = CRCFactory.getSpecializedEngine(crcModel);
+                break;
+            default:
+                crcEngine = CRCFactory.getEngine(crcModel);
+        }
+    }
+
+    @Benchmark
+    public long update() {
+        return crcEngine.finish(crcEngine.update(crcEngine.init(), buffer, 0, length));
+    }
+}
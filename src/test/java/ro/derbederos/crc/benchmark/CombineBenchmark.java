@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.derbederos.crc.CRC;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.purejava.CRC32;
+import ro.derbederos.crc.purejava.CRC64;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Measures the latency of combining CRC values, which is dominated by the GF(2) arithmetic.
+ * Models of width 16 and 32 use the {@link CRC32} engine, models of width 64 use {@link CRC64}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombineBenchmark {
+
+    @Param({"XMODEM", "KERMIT", "CRC-32/BZIP2", "CRC-32", "CRC-64/WE", "CRC-64/XZ"})
+    public String model;
+
+    @Param({"1", "16", "4096", "1048576", "1073741824", "1099511627776"})
+    public long bytesB;
+
+    private CRC crc;
+    private LongBinaryOperator concatenateOperator;
+    private LongUnaryOperator concatenateZeroesOperator;
+    private long crcA;
+    private long crcB;
+
+    @Setup
+    public void setup() {
+        CRCModel crcModel = CRCFactory.getModel(model);
+        crc = crcModel.getWidth() <= 32 ? new CRC32(crcModel) : new CRC64(crcModel);
+        Random random = new Random(AbstractChecksumBenchmark.SEED);
+        long mask = -1L >>> (64 - crcModel.getWidth());
+        crcA = random.nextLong() & mask;
+        crcB = random.nextLong() & mask;
+        concatenateOperator = crc.concatenateOperator(bytesB);
+        concatenateZeroesOperator = crc.concatenateZeroesOperator(bytesB);
+    }
+
+    @Benchmark
+    public long concatenate() {
+        return crc.concatenate(crcA, crcB, bytesB);
+    }
+
+    @Benchmark
+    public long concatenateZeroes() {
+        return crc.concatenateZeroes(crcA, bytesB);
+    }
+
+    @Benchmark
+    public long concatenateOperator() {
+        return concatenateOperator.applyAsLong(crcA, crcB);
+    }
+
+    @Benchmark
+    public long concatenateZeroesOperator() {
+        return concatenateZeroesOperator.applyAsLong(crcA);
+    }
+
+    @Benchmark
+    public long append() {
+        crc.setValue(crcA);
+        crc.append(crcB, bytesB);
+        return crc.getValue();
+    }
+
+    @Benchmark
+    public long appendZeroes() {
+        crc.setValue(crcA);
+        crc.appendZeroes(bytesB);
+        return crc.getValue();
+    }
+}
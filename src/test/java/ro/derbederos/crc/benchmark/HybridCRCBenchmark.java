@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.HybridCRC;
+
+import java.util.zip.Checksum;
+
+/**
+ * Compares the {@link HybridCRC} returned by {@link CRCFactory#getCRC(String)} with the two engines it dispatches to,
+ * on short messages and on large inputs. Run with {@code -p length=16,32,64,128,4096} to find the thresholds.
+ */
+public class HybridCRCBenchmark extends AbstractChecksumBenchmark {
+
+    @Param({"hybrid", "small", "large"})
+    public String engine;
+
+    @Param({"CRC-8", "MODBUS", "CRC-32/BZIP2", "CRC-64/XZ"})
+    public String model;
+
+    @Override
+    protected Checksum createChecksum() {
+        HybridCRC crc = (HybridCRC) CRCFactory.getCRC(model);
+        switch (engine) {
+            case "small":
+                return crc.getSmallInputsCRC();
+            case "large":
+                return crc.getLargeInputsCRC();
+            default:
+                return crc;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.zip.Checksum;
+
+/**
+ * Baseline of the JDK intrinsic implementations ({@code java.util.zip.CRC32C} requires Java 9).
+ */
+public class JdkChecksumBenchmark extends AbstractChecksumBenchmark {
+
+    @Param({"java.util.zip.CRC32", "java.util.zip.CRC32C"})
+    public String engine;
+
+    @Override
+    protected Checksum createChecksum() throws ReflectiveOperationException {
+        return (Checksum) Class.forName(engine).getConstructor().newInstance();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.ParallelCRC;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Checksum;
+
+/**
+ * Compares {@link ParallelCRC} on the common pool with the sequential engine returned by {@link CRCFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelCRCBenchmark {
+
+    @Param({"CRC-32C", "CRC-32/BZIP2", "CRC-64/XZ"})
+    public String model;
+
+    @Param({"16777216", "268435456"})
+    public int length;
+
+    @Param({"1048576"})
+    public int threshold;
+
+    private byte[] buffer;
+    private CRCModel crcModel;
+    private ParallelCRC parallelCRC;
+
+    @Setup
+    public void setup() {
+        buffer = new byte[length];
+        new Random(AbstractChecksumBenchmark.SEED).nextBytes(buffer);
+        crcModel = CRCFactory.getModel(model);
+        parallelCRC = new ParallelCRC(crcModel, threshold, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public long sequential() {
+        Checksum checksum = CRCFactory.getCRC(crcModel);
+        checksum.update(buffer, 0, buffer.length);
+        return checksum.getValue();
+    }
+
+    @Benchmark
+    public long parallel() {
+        return parallelCRC.compute(buffer);
+    }
+}
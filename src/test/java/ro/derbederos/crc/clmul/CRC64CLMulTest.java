@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.clmul;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.AbstractCRCTest;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+import ro.derbederos.crc.purejava.CRC64SlicingBy16;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(Parameterized.class)
+public class CRC64CLMulTest extends AbstractCRCTest {
+
+    public CRC64CLMulTest(CRCModel crcModel) {
+        super(crcModel, CRC64CLMul::new);
+    }
+
+    @BeforeClass
+    public static void checkSupported() {
+        assumeTrue("PCLMULQDQ native library not available", CRC64CLMul.isSupported());
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return Arrays.stream(CRCFactory.getDefinedModels())
+                .filter(crcModel -> crcModel.getWidth() <= 64)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFoldingLengths() {
+        byte[] input = new byte[4096 + 64];
+        new Random(0x12fed1a214ecbd00L).nextBytes(input);
+        CRC64CLMul crc = new CRC64CLMul(crcModel);
+        CRC64SlicingBy16 expected = new CRC64SlicingBy16(crcModel);
+        ByteBuffer direct = ByteBuffer.allocateDirect(input.length).put(input);
+        // every tail length and number of 16 bytes blocks around the 64 bytes folding loop
+        for (int len = 100; len < input.length; len += 37) {
+            int offset = len % 61;
+            expected.reset();
+            expected.update(input, offset, len - offset);
+            crc.reset();
+            crc.update(input, offset, len - offset);
+            assertEquals("at length " + len, toHexString(expected.getValue()), toHexString(crc.getValue()));
+
+            ((Buffer) direct).limit(len).position(offset);
+            crc.reset();
+            crc.update(direct);
+            assertEquals("direct at length " + len, toHexString(expected.getValue()), toHexString(crc.getValue()));
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testBoundsChecked() {
+        new CRC64CLMul(crcModel).update(new byte[256], 64, 256);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.generated;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.AbstractCRCTest;
+import ro.derbederos.crc.CRC;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class GeneratedCRCsTest extends AbstractCRCTest {
+
+    public GeneratedCRCsTest(CRCModel crcModel) {
+        super(crcModel, model -> (CRC) GeneratedCRCs.getFactories().get(model.getName()).get());
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return GeneratedCRCs.getFactories().keySet().stream()
+                .map(CRCFactory::getModel)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testGeneratedModelMatchesCatalogue() {
+        CRC crc = (CRC) GeneratedCRCs.getFactories().get(crcModel.getName()).get();
+        assertEquals(crcModel, crc.getCRCModel());
+        assertEquals(crcModel.getCheck(), crc.getCRCModel().getCheck());
+        assertEquals(crcModel.getResidue(), crc.getCRCModel().getResidue());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ro.derbederos.crc.purejava;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.AbstractCRCTest;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.Checksum;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class CRC32IntrinsicTest extends AbstractCRCTest {
+
+    private final Supplier<Checksum> intrinsic;
+
+    public CRC32IntrinsicTest(CRCModel crcModel, Supplier<Checksum> intrinsic) {
+        super(crcModel, model -> new CRC32Intrinsic(model, intrinsic));
+        this.intrinsic = intrinsic;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> getCRCParameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        addModels(parameters, CRCFactory.CRC32, java.util.zip.CRC32::new);
+        if (isClassAvailable("java.util.zip.CRC32C")) { // Java 9 or later
+            addModels(parameters, CRCFactory.CRC32C, java.util.zip.CRC32C::new);
+        }
+        return parameters;
+    }
+
+    @Test
+    public void testStartValueChangeBuiltOnlyForOtherInits() {
+        CRC32Intrinsic crc = new CRC32Intrinsic(crcModel, intrinsic);
+        crc.update("123456789".getBytes(), 0, 9);
+        assertEquals(crcModel.getCheck(), crc.getValue());
+        assertEquals(crcModel.getInit() != 0xFFFFFFFFL, crc.startValueChange != null);
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException ignore) {
+            return false;
+        }
+    }
+
+    /**
+     * Variations of init and xorOut of the base model, the check and the residue are computed with slicing-by-16.
+     */
+    private static void addModels(List<Object[]> parameters, CRCModel base, Supplier<Checksum> intrinsic) {
+        for (long init : new long[]{0xFFFFFFFFL, 0, 0x12345678L}) {
+            for (long xorOut : new long[]{0xFFFFFFFFL, 0}) {
+                String name = base.getName() + "/INIT-" + Long.toHexString(init) + "/XOROUT-" + Long.toHexString(xorOut);
+                CRCModel model = new CRCModel(name, 32, base.getPoly(), init, true, true, xorOut, 0, 0);
+                CRC64SlicingBy16 reference = new CRC64SlicingBy16(model);
+                reference.update("123456789".getBytes());
+                model = new CRCModel(name, 32, base.getPoly(), init, true, true, xorOut,
+                        reference.getValue(), reference.getCrcOfCrc());
+                parameters.add(new Object[]{model, intrinsic});
+            }
+        }
+    }
+}
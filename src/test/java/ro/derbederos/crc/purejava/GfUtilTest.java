@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.Long.toHexString;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class GfUtilTest {
+    private static final long[] LENGTHS = {0, 1, 3, 8, 15, 64, 1000, 4096, 123456789, 1L << 40, 0x1fffffffffffffffL};
+
+    private CRCModel crcModel;
+
+    public GfUtilTest(CRCModel crcModel) {
+        this.crcModel = crcModel;
+    }
+
+    @Test
+    public void testReflectedVsUnreflected64() {
+        assertReflectedVsUnreflected(new GfUtil64Reflected(crcModel), new GfUtil64Unreflected(crcModel));
+    }
+
+    @Test
+    public void testReflectedVsUnreflected32() {
+        if (crcModel.getWidth() <= 32) {
+            assertReflectedVsUnreflected(new GfUtil32Reflected(crcModel), new GfUtil32Unreflected(crcModel));
+        }
+    }
+
+    @Test
+    public void testGfUtil32VsGfUtil64() {
+        if (crcModel.getWidth() <= 32) {
+            assertSameResults(new GfUtil64Reflected(crcModel), new GfUtil32Reflected(crcModel));
+            assertSameResults(new GfUtil64Unreflected(crcModel), new GfUtil32Unreflected(crcModel));
+        }
+    }
+
+    private void assertReflectedVsUnreflected(GfUtil reflected, GfUtil unreflected) {
+        assertEquals(toHexString(reflect(reflected.getCrcOfCrc())), toHexString(unreflected.getCrcOfCrc()));
+        long crcA = 0x0123456789abcdefL & mask();
+        long crcB = 0xfedcba9876543210L & mask();
+        for (long n : LENGTHS) {
+            String message = "length " + n;
+            assertEquals(message, toHexString(reflect(reflected.Xpow8N(n))), toHexString(unreflected.Xpow8N(n)));
+            assertEquals(message, toHexString(reflect(reflected.crcOfZeroes(n, crcA))),
+                    toHexString(unreflected.crcOfZeroes(n, reflect(crcA))));
+            assertEquals(message, toHexString(reflect(reflected.concatenate(crcA, crcB, n))),
+                    toHexString(unreflected.concatenate(reflect(crcA), reflect(crcB), n)));
+        }
+    }
+
+    private void assertSameResults(GfUtil expected, GfUtil actual) {
+        assertEquals(toHexString(expected.getCrcOfCrc()), toHexString(actual.getCrcOfCrc()));
+        long crcA = 0x0123456789abcdefL & mask();
+        long crcB = 0xfedcba9876543210L & mask();
+        for (long n : LENGTHS) {
+            String message = "length " + n;
+            assertEquals(message, toHexString(expected.Xpow8N(n)), toHexString(actual.Xpow8N(n)));
+            assertEquals(message, toHexString(expected.crcOfZeroes(n, crcA)), toHexString(actual.crcOfZeroes(n, crcA)));
+            assertEquals(message, toHexString(expected.concatenate(crcA, crcB, n)),
+                    toHexString(actual.concatenate(crcA, crcB, n)));
+        }
+    }
+
+    private long mask() {
+        return -1L >>> (64 - crcModel.getWidth());
+    }
+
+    private long reflect(long value) {
+        return Long.reverse(value) >>> (64 - crcModel.getWidth());
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<CRCModel> getCRCParameters() {
+        return Arrays.asList(CRCFactory.getDefinedModels());
+    }
+}
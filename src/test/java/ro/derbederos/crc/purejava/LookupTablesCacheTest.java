@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import org.junit.Test;
+import ro.derbederos.crc.CRCFactory;
+import ro.derbederos.crc.CRCModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class LookupTablesCacheTest {
+
+    @Test
+    public void testSameModelSharesTables() {
+        CRCModel crcModel = CRCFactory.getModel("CRC-32/BZIP2");
+        CRC32SlicingBy16 crc1 = new CRC32SlicingBy16(crcModel);
+        CRC32SlicingBy16 crc2 = new CRC32SlicingBy16(crcModel);
+        assertSame(crc1.lookupTables, crc2.lookupTables);
+    }
+
+    @Test
+    public void testSamePolynomialSharesTables() {
+        // same poly, refIn and width, different init and xorOut
+        CRC64 crc1 = new CRC64SlicingBy16(CRCFactory.getModel("CRC-64/WE"));
+        CRC64 crc2 = new CRC64SlicingBy16(CRCFactory.getModel("CRC-64"));
+        assertSame(crc1.lookupTables, crc2.lookupTables);
+    }
+
+    @Test
+    public void testDifferentDimensionDoesNotShareTables() {
+        CRCModel crcModel = CRCFactory.getModel("CRC-32/BZIP2");
+        CRC32 crc1 = new CRC32SlicingBy8(crcModel);
+        CRC32 crc2 = new CRC32SlicingBy16(crcModel);
+        assertNotSame(crc1.lookupTables, crc2.lookupTables);
+    }
+
+    @Test
+    public void testFlatEnginesHoldOnlyTheFlatTables() {
+        assumeTrue("VarHandle not available", isClassAvailable("java.lang.invoke.VarHandle"));
+        CRC32SlicingBy16Flat crc32 = new CRC32SlicingBy16Flat(CRCFactory.getModel("CRC-32/BZIP2"));
+        CRC64SlicingBy16Flat crc64 = new CRC64SlicingBy16Flat(CRCFactory.getModel("CRC-64/XZ"));
+        assertEquals(0, crc32.lookupTables.length);
+        assertEquals(16 << 8, crc32.flatLookupTables.length);
+        assertEquals(0, crc64.lookupTables.length);
+        assertEquals(16 << 8, crc64.flatLookupTables.length);
+        CRC32SlicingBy8Flat crc32By8 = new CRC32SlicingBy8Flat(CRCFactory.getModel("CRC-32/BZIP2"));
+        CRC64SlicingBy8Flat crc64By8 = new CRC64SlicingBy8Flat(CRCFactory.getModel("CRC-64/XZ"));
+        assertEquals(0, crc32By8.lookupTables.length);
+        assertEquals(8 << 8, crc32By8.flatLookupTables.length);
+        assertEquals(0, crc64By8.lookupTables.length);
+        assertEquals(8 << 8, crc64By8.flatLookupTables.length);
+    }
+
+    @Test
+    public void testZeroDimensionTablesAreSharedNotCached() {
+        assertEquals(0, LookupTablesCache.getLookupTables32(32, 0x04C11DB7, false, 0).length);
+        assertSame(LookupTablesCache.getLookupTables32(32, 0x04C11DB7, false, 0),
+                LookupTablesCache.getLookupTables32(32, 0x82F63B78, true, 0));
+        assertSame(LookupTablesCache.getLookupTables64(64, 0x42F0E1EBA9EA3693L, false, 0),
+                LookupTablesCache.getLookupTables64(64, 0xC96C5795D7870F42L, true, 0));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        for (int poly = 1; poly < 4 * LookupTablesCache.MAX_ENTRIES; poly += 2) {
+            LookupTablesCache.getLookupTables32(32, poly, false, 1);
+        }
+        assertTrue(LookupTablesCache.size() <= LookupTablesCache.MAX_ENTRIES);
+    }
+
+    private static boolean isClassAvailable(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException ignore) {
+            return false;
+        }
+    }
+}
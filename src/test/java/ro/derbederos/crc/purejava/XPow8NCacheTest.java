@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017-2018 Claudiu Soroiu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ro.derbederos.crc.purejava;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class XPow8NCacheTest {
+
+    @Test
+    public void testComputesOnlyOnce() {
+        List<Long> computed = new ArrayList<>();
+        XPow8NCache<long[]> cache = new XPow8NCache<>(n -> {
+            computed.add(n);
+            return new long[]{n};
+        });
+        long[] first = cache.get(1000);
+        assertSame(first, cache.get(1000));
+        assertEquals(asList(1000L), computed);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        List<Long> computed = new ArrayList<>();
+        XPow8NCache<long[]> cache = new XPow8NCache<>(n -> {
+            computed.add(n);
+            return new long[]{n};
+        });
+        for (long n = 0; n < XPow8NCache.SIZE; n++) {
+            cache.get(n);
+        }
+        cache.get(0);                       // 0 becomes the most recently used, 1 the least
+        cache.get(XPow8NCache.SIZE);        // evicts 1
+        computed.clear();
+
+        cache.get(0);
+        cache.get(XPow8NCache.SIZE);
+        assertEquals(asList(), computed);
+        cache.get(1);
+        assertEquals(asList(1L), computed);
+    }
+}